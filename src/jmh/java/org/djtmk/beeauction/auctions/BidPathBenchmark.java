@@ -0,0 +1,72 @@
+package org.djtmk.beeauction.auctions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The in-memory part of a bid: the compare-and-set on {@link BidState} that Auction.commitBid
+ * runs, followed by publishing the bid's effects through {@link BidSequencer}. The economy,
+ * ledger and journal calls around it need a running server and are left out.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BidPathBenchmark {
+
+    private static final double MIN_INCREMENT = 10;
+    private static final UUID BIDDER = UUID.randomUUID();
+
+    private AtomicReference<BidState> state;
+    private BidSequencer sequencer;
+    // Only written by published effects, which BidSequencer runs one at a time.
+    private long published;
+
+    @Setup
+    public void setUp() {
+        // Far enough out that no bid is rejected or extends the auction during a run.
+        state = new AtomicReference<>(BidState.initial(100).opened(Long.MAX_VALUE / 2));
+        sequencer = new BidSequencer();
+    }
+
+    @Benchmark
+    public BidState commitUncontended() {
+        return commit();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BidState commitContended() {
+        return commit();
+    }
+
+    private BidState commit() {
+        while (true) {
+            BidState current = state.get();
+            long now = System.currentTimeMillis();
+            if (!current.acceptsBidsAt(now)) {
+                throw new IllegalStateException("auction closed during the benchmark");
+            }
+            BidState next = current.withBid(current.requiredBid(MIN_INCREMENT), BIDDER, "Bidder", current.endTime());
+            if (state.compareAndSet(current, next)) {
+                sequencer.publish(next.sequence(), () -> published++);
+                return next;
+            }
+        }
+    }
+}
@@ -4,24 +4,38 @@ import org.bstats.bukkit.Metrics;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.djtmk.beeauction.api.BeeAuctionAPI;
 import org.djtmk.beeauction.auctions.AuctionCreationManager;
+import org.djtmk.beeauction.auctions.AuctionJournal;
 import org.djtmk.beeauction.auctions.AuctionManager;
+import org.djtmk.beeauction.auctions.BidLedger;
 import org.djtmk.beeauction.auctions.BidManager;
+import org.djtmk.beeauction.commands.AuctionBarCommand;
+import org.djtmk.beeauction.commands.BidAlertsCommand;
 import org.djtmk.beeauction.commands.BidCommand;
 import org.djtmk.beeauction.commands.ClaimCommand;
 import org.djtmk.beeauction.commands.GlobalAuctionCommand;
 import org.djtmk.beeauction.commands.GlobalAuctionTabCompleter;
 import org.djtmk.beeauction.config.ConfigManager;
+import org.djtmk.beeauction.data.ItemReencodeJob;
+import org.djtmk.beeauction.data.HistoryExportJob;
+import org.djtmk.beeauction.data.LeaderboardService;
+import org.djtmk.beeauction.data.PlayerStatsCache;
+import org.djtmk.beeauction.data.RetentionJob;
 import org.djtmk.beeauction.hooks.PlaceholderHook;
 import org.djtmk.beeauction.mysql.AsyncDatabaseManager;
 import org.djtmk.beeauction.mysql.DatabaseManagerFactory;
 import org.djtmk.beeauction.economy.EconomyManager;
 import org.djtmk.beeauction.listeners.AdminJoinListener;
+import org.djtmk.beeauction.listeners.AuctionBarListener;
 import org.djtmk.beeauction.listeners.AuctionCreationListener;
+import org.djtmk.beeauction.listeners.BidAlertListener;
 import org.djtmk.beeauction.listeners.ClaimListener;
 import org.djtmk.beeauction.listeners.GUIListener;
+import org.djtmk.beeauction.listeners.PlayerStatsListener;
+import org.djtmk.beeauction.util.MonitoredExecutor;
 import org.djtmk.beeauction.util.UpdateChecker;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 public final class BeeAuction extends JavaPlugin {
@@ -34,6 +48,14 @@ public final class BeeAuction extends JavaPlugin {
     private AuctionCreationListener auctionCreationListener;
     private BidManager bidManager;
     private UpdateChecker updateChecker;
+    private MonitoredExecutor ioExecutor;
+    private ItemReencodeJob itemReencodeJob;
+    private PlayerStatsCache playerStatsCache;
+    private LeaderboardService leaderboardService;
+    private HistoryExportJob historyExportJob;
+    private RetentionJob retentionJob;
+    private AuctionJournal auctionJournal;
+    private BidLedger bidLedger;
 
     @Override
     public void onEnable() {
@@ -45,8 +67,18 @@ public final class BeeAuction extends JavaPlugin {
             return;
         }
 
-        economyManager = new EconomyManager();
+        ioExecutor = MonitoredExecutor.create("BeeAuction-IO",
+                getConfig().getInt("threading.io.threads", 2),
+                getConfig().getInt("threading.io.queue-capacity", 100),
+                getExecutorMode());
+
+        economyManager = new EconomyManager(
+                getConfig().getInt("economy.executor.threads", 2),
+                getConfig().getInt("economy.executor.queue-capacity", 1000),
+                getExecutorMode());
         if (!economyManager.isAvailable()) {
+            economyManager.shutdown(getLogger());
+            economyManager = null;
             log.severe(String.format("[%s] - Disabled due to no supported economy plugin found!", getDescription().getName()));
             getServer().getPluginManager().disablePlugin(this);
             return;
@@ -55,8 +87,25 @@ public final class BeeAuction extends JavaPlugin {
 
         databaseManager = new DatabaseManagerFactory(this).createDatabaseManager();
         databaseManager.initialize();
+        if (!"legacy".equalsIgnoreCase(getConfig().getString("database.items.format", "binary"))
+                && getConfig().getBoolean("database.items.reencode-legacy", true)) {
+            itemReencodeJob = new ItemReencodeJob(this);
+            itemReencodeJob.start();
+        }
+        if (getConfig().getBoolean("database.retention.enabled", false)) {
+            retentionJob = new RetentionJob(this);
+            retentionJob.start();
+        }
 
+        playerStatsCache = new PlayerStatsCache(this);
+        leaderboardService = new LeaderboardService(this);
+        leaderboardService.start();
+        historyExportJob = new HistoryExportJob(this);
+        auctionJournal = new AuctionJournal(this);
+        bidLedger = new BidLedger(this);
+        bidLedger.start();
         auctionManager = new AuctionManager(this);
+        auctionManager.recoverAuctions();
         auctionCreationListener = new AuctionCreationListener(this);
         bidManager = new BidManager(this);
 
@@ -78,7 +127,7 @@ public final class BeeAuction extends JavaPlugin {
             log.warning(String.format("[%s] Failed to initialize bStats: %s", getDescription().getName(), e.getMessage()));
         }
 
-        updateChecker = new UpdateChecker(this, "beeauction");
+        updateChecker = new UpdateChecker(this, "beeauction", ioExecutor);
         updateChecker.check();
 
         log.info(String.format("[%s] has been enabled! Version: %s", getDescription().getName(), getDescription().getVersion()));
@@ -87,17 +136,48 @@ public final class BeeAuction extends JavaPlugin {
     @Override
     public void onDisable() {
         if (auctionManager != null) {
-            auctionManager.cancelAuction();
+            // With resume-after-restart the auctions stay open in the journal and continue on the next start.
+            if (auctionJournal == null || !auctionJournal.isResumeAfterRestart()) {
+                auctionManager.cancelAllAuctions();
+            }
+            auctionManager.shutdown();
+        }
+        if (economyManager != null) {
+            economyManager.shutdown(getLogger());
+        }
+        if (itemReencodeJob != null) {
+            itemReencodeJob.stop();
+        }
+        if (leaderboardService != null) {
+            leaderboardService.shutdown();
+        }
+        if (historyExportJob != null) {
+            historyExportJob.stop();
+        }
+        if (retentionJob != null) {
+            retentionJob.stop();
+        }
+        if (auctionJournal != null) {
+            auctionJournal.close();
+        }
+        if (bidLedger != null) {
+            bidLedger.close();
         }
         if (databaseManager != null) {
             databaseManager.shutdown();
         }
+        if (ioExecutor != null) {
+            ioExecutor.shutdownAndAwait(getLogger(), 5, TimeUnit.SECONDS);
+        }
         log.info(String.format("[%s] has been disabled.", getDescription().getName()));
     }
 
     private void registerListeners() {
         getServer().getPluginManager().registerEvents(new ClaimListener(this), this);
         getServer().getPluginManager().registerEvents(new AdminJoinListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerStatsListener(this), this);
+        getServer().getPluginManager().registerEvents(new AuctionBarListener(this), this);
+        getServer().getPluginManager().registerEvents(new BidAlertListener(this), this);
         // GUI disabled - uncomment to re-enable
         // getServer().getPluginManager().registerEvents(new GUIListener(), this);
         getServer().getPluginManager().registerEvents(auctionCreationListener, this);
@@ -113,6 +193,10 @@ public final class BeeAuction extends JavaPlugin {
         Objects.requireNonNull(getCommand(playerBidCommand)).setExecutor(new BidCommand(this));
 
         Objects.requireNonNull(getCommand("claim")).setExecutor(new ClaimCommand(this));
+        Objects.requireNonNull(getCommand("auctionbar")).setExecutor(new AuctionBarCommand(this));
+        BidAlertsCommand bidAlertsCommand = new BidAlertsCommand(this);
+        Objects.requireNonNull(getCommand("bidalerts")).setExecutor(bidAlertsCommand);
+        Objects.requireNonNull(getCommand("bidalerts")).setTabCompleter(bidAlertsCommand);
     }
 
     public static BeeAuction getInstance() { return instance; }
@@ -123,4 +207,15 @@ public final class BeeAuction extends JavaPlugin {
     public AuctionCreationManager getAuctionCreationManager() { return auctionCreationListener.getCreationManager(); }
     public BidManager getBidManager() { return bidManager; }
     public UpdateChecker getUpdateChecker() { return updateChecker; }
+    public MonitoredExecutor getIoExecutor() { return ioExecutor; }
+    public PlayerStatsCache getPlayerStatsCache() { return playerStatsCache; }
+    public LeaderboardService getLeaderboardService() { return leaderboardService; }
+    public HistoryExportJob getHistoryExportJob() { return historyExportJob; }
+    public RetentionJob getRetentionJob() { return retentionJob; }
+    public AuctionJournal getAuctionJournal() { return auctionJournal; }
+    public BidLedger getBidLedger() { return bidLedger; }
+
+    public MonitoredExecutor.Mode getExecutorMode() {
+        return MonitoredExecutor.Mode.parse(getConfig().getString("threading.mode", "platform"), getLogger());
+    }
 }
@@ -3,6 +3,17 @@ package org.djtmk.beeauction.api;
 import org.bukkit.entity.Player;
 import org.djtmk.beeauction.BeeAuction;
 import org.djtmk.beeauction.auctions.Auction;
+import org.djtmk.beeauction.data.HistoryPage;
+import org.djtmk.beeauction.data.HistoryQuery;
+import org.djtmk.beeauction.data.LeaderboardType;
+import org.djtmk.beeauction.data.LedgerEntry;
+import org.djtmk.beeauction.data.LedgerQuery;
+import org.djtmk.beeauction.data.PlayerStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class BeeAuctionAPI {
 
@@ -10,10 +21,21 @@ public class BeeAuctionAPI {
     public static void setPlugin(BeeAuction plugin) {
         BeeAuctionAPI.plugin = plugin;
     }
+    /**
+     * @return the active auction that ends soonest, or null if none are running
+     */
     public static Auction getActiveAuction() {
         return plugin.getAuctionManager().getActiveAuction();
     }
 
+    public static Auction getAuction(int auctionId) {
+        return plugin.getAuctionManager().getAuction(auctionId);
+    }
+
+    public static Collection<Auction> getActiveAuctions() {
+        return plugin.getAuctionManager().getActiveAuctions();
+    }
+
     public static Player getHighestBidder() {
         Auction auction = getActiveAuction();
         return auction != null ? auction.getHighestBidder() : null;
@@ -27,4 +49,33 @@ public class BeeAuctionAPI {
     public static boolean hasActiveAuction() {
         return plugin.getAuctionManager().hasActiveAuction();
     }
+
+    /**
+     * Loads one page of auction history; continue with {@link HistoryQuery#next(HistoryPage)}.
+     */
+    public static CompletableFuture<HistoryPage> queryHistory(HistoryQuery query) {
+        return plugin.getDatabaseManager().queryHistory(query);
+    }
+
+    /**
+     * Loads bid ledger entries for an auction or player, newest first. Build the query with
+     * {@link LedgerQuery#forAuction(int, int)} or {@link LedgerQuery#forPlayer(UUID, int)}.
+     */
+    public static CompletableFuture<List<LedgerEntry>> queryLedger(LedgerQuery query) {
+        return plugin.getBidLedger().query(query);
+    }
+
+    /**
+     * @return the current top players of a ranking, best first; served from memory
+     */
+    public static List<PlayerStats> getLeaderboard(LeaderboardType type) {
+        return plugin.getLeaderboardService().getTop(type);
+    }
+
+    /**
+     * Loads a player's aggregated auction statistics from the database.
+     */
+    public static CompletableFuture<PlayerStats> getPlayerStats(UUID playerUuid) {
+        return plugin.getDatabaseManager().getPlayerStats(playerUuid);
+    }
 }
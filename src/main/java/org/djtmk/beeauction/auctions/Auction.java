@@ -1,21 +1,37 @@
 package org.djtmk.beeauction.auctions;
 
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.djtmk.beeauction.BeeAuction;
 import org.djtmk.beeauction.config.AuctionEnum.AuctionType;
+import org.djtmk.beeauction.config.AuctionSettings;
 import org.djtmk.beeauction.config.MessageEnum;
+import org.djtmk.beeauction.data.AuctionStateRecord;
+import org.djtmk.beeauction.data.AuctionStatus;
+import org.djtmk.beeauction.data.LedgerEntry;
+import org.djtmk.beeauction.data.LedgerEntryType;
+import org.djtmk.beeauction.data.LedgerQuery;
 import org.djtmk.beeauction.events.AuctionBidEvent;
 import org.djtmk.beeauction.util.InputSanitizer;
 import org.djtmk.beeauction.util.ItemUtils;
 import org.djtmk.beeauction.util.MessageUtil;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 
 public class Auction {
     private final BeeAuction plugin;
+    private final int id;
     private final AuctionType type;
     private final ItemStack item;
     private final String command;
@@ -25,13 +41,16 @@ public class Auction {
     private final String customName;
     private final String ownerName;
     private final UUID ownerUuid;
-    private volatile double currentBid;
-    private volatile Player highestBidder;
-    private volatile boolean active;
-    private volatile long endTime;
-
-    public Auction(BeeAuction plugin, ItemStack item, double startPrice, int duration, String customName, Player owner) {
+    // Bid, bidder, end time and open flag change together; they are only ever swapped as one
+    // immutable snapshot so readers never see a torn combination.
+    private final AtomicReference<BidState> state;
+    private final BidSequencer bidSequencer;
+    // Restored from an ENDING row: part of the settlement may already have happened.
+    private final boolean settlementInterrupted;
+
+    public Auction(BeeAuction plugin, int id, ItemStack item, double startPrice, int duration, String customName, Player owner) {
         this.plugin = plugin;
+        this.id = id;
         this.type = AuctionType.ITEM;
         this.item = item.clone();
         this.command = null;
@@ -41,13 +60,14 @@ public class Auction {
         this.customName = customName;
         this.ownerName = owner.getName();
         this.ownerUuid = owner.getUniqueId();
-        this.currentBid = startPrice;
-        this.highestBidder = null;
-        this.active = false;
+        this.state = new AtomicReference<>(BidState.initial(startPrice));
+        this.bidSequencer = new BidSequencer();
+        this.settlementInterrupted = false;
     }
 
-    public Auction(BeeAuction plugin, String command, String commandDisplayName, double startPrice, int duration, String customName, String ownerName) {
+    public Auction(BeeAuction plugin, int id, String command, String commandDisplayName, double startPrice, int duration, String customName, String ownerName) {
         this.plugin = plugin;
+        this.id = id;
         this.type = AuctionType.COMMAND;
         this.item = null;
         this.command = command;
@@ -57,52 +77,167 @@ public class Auction {
         this.customName = customName;
         this.ownerName = ownerName;
         this.ownerUuid = null;
-        this.currentBid = startPrice;
-        this.highestBidder = null;
-        this.active = false;
+        this.state = new AtomicReference<>(BidState.initial(startPrice));
+        this.bidSequencer = new BidSequencer();
+        this.settlementInterrupted = false;
+    }
+
+    /**
+     * Restores an auction that was open when the server stopped. It comes back open with its
+     * stored bid and end time; it is not announced again.
+     */
+    public Auction(BeeAuction plugin, AuctionStateRecord record) {
+        this.plugin = plugin;
+        this.id = record.id();
+        this.type = AuctionType.valueOf(record.auctionType());
+        this.item = record.item();
+        this.command = record.command();
+        this.commandDisplayName = record.commandDisplayName();
+        this.startPrice = record.startPrice();
+        this.duration = record.duration();
+        this.customName = record.customName();
+        this.ownerName = record.ownerName();
+        this.ownerUuid = record.ownerUuid();
+        this.state = new AtomicReference<>(new BidState(record.currentBid(), record.bidderUuid(), record.bidderName(),
+                record.endTime(), true, record.bidSequence()));
+        // Bids up to the restored sequence were published before the restart.
+        this.bidSequencer = new BidSequencer(record.bidSequence() + 1);
+        this.settlementInterrupted = record.status() == AuctionStatus.ENDING;
     }
 
     public void start() {
-        active = true;
-        endTime = System.currentTimeMillis() + (duration * 1000L);
+        long endTime = System.currentTimeMillis() + (duration * 1000L);
+        state.updateAndGet(current -> current.opened(endTime));
+        plugin.getAuctionJournal().record(this);
         String rewardName = getRewardName();
         String formattedPrice = MessageUtil.formatPrice(startPrice);
-        Bukkit.broadcastMessage(MessageEnum.AUCTION_STARTED.get("item", rewardName, "price", formattedPrice));
+        MessageUtil.broadcast(MessageEnum.AUCTION_STARTED.component("id", id, "item", rewardName, "price", formattedPrice));
+    }
+
+    /**
+     * Continues a restored auction, pushing its end time out to at least {@code minEndTime}.
+     */
+    public void resume(long minEndTime) {
+        state.updateAndGet(current -> current.opened(Math.max(current.endTime(), minEndTime)));
+        plugin.getAuctionJournal().record(this);
     }
 
-    public synchronized void end() {
-        if (!active) {
+    /**
+     * Closes the auction and hands out the item and money. The journal keeps it as ENDING until
+     * the winner, seller and history have been handled, so a crash in between finishes the
+     * settlement on the next start instead of losing it. Each step records itself in the bid
+     * ledger once done, and a resumed settlement only repeats the steps with no record.
+     */
+    public void end() {
+        BidState finalState = close();
+        if (finalState == null) {
             return;
         }
-        active = false;
+        plugin.getAuctionJournal().settle(this, AuctionStatus.ENDING);
 
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            if (highestBidder == null) {
-                Bukkit.broadcastMessage(MessageEnum.AUCTION_CANCELLED.get("reason", "No bids were placed."));
-                if (type == AuctionType.ITEM && item != null && ownerUuid != null) {
-                    returnItemToOwner("Your auctioned item was returned (no bids).");
-                }
+        completedSettlementSteps().whenComplete((done, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.SEVERE, "Could not read the bid ledger of auction #" + id + " to resume its settlement. "
+                        + "It stays ENDING and is retried on the next start.", error);
                 return;
             }
+            Bukkit.getScheduler().runTask(plugin, () -> settle(finalState, done));
+        });
+    }
 
-            handleWinner();
-            handlePayment();
-            broadcastEndMessage();
+    /**
+     * @return the settlement steps already recorded for this auction, or null if the settlement
+     *         was interrupted and there is no ledger to tell
+     */
+    private CompletableFuture<Set<LedgerEntryType>> completedSettlementSteps() {
+        if (!settlementInterrupted) {
+            return CompletableFuture.completedFuture(EnumSet.noneOf(LedgerEntryType.class));
+        }
+        if (!plugin.getBidLedger().isEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Settlement entries are the newest of an auction, after all of its bids.
+        return plugin.getBidLedger().query(LedgerQuery.forAuction(id, LedgerQuery.MAX_LIMIT)).thenApply(entries -> {
+            Set<LedgerEntryType> done = EnumSet.noneOf(LedgerEntryType.class);
+            for (LedgerEntry entry : entries) {
+                done.add(entry.type());
+            }
+            return done;
         });
     }
 
-    public synchronized void cancel() {
-        if (!active) {
+    private void settle(BidState finalState, Set<LedgerEntryType> done) {
+        plugin.getAuctionManager().getBidBroadcaster().flush(id);
+        if (done == null) {
+            // Nothing says which steps finished, and repeating them could pay or deliver twice.
+            plugin.getLogger().severe("The settlement of auction #" + id + " was interrupted and the bid ledger is disabled, so it "
+                    + "was not repeated. Check by hand: winner " + (finalState.hasBidder() ? finalState.bidderName() : "none")
+                    + ", amount " + finalState.amount() + ", seller " + ownerName + ".");
+            plugin.getAuctionJournal().settle(this, AuctionStatus.ENDED);
             return;
         }
-        active = false;
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            Bukkit.broadcastMessage(MessageEnum.AUCTION_CANCELLED.get("reason", "The auction was cancelled by an admin."));
-
-            if (highestBidder != null) {
-                plugin.getEconomyManager().deposit(highestBidder, currentBid);
-                if (highestBidder.isOnline()) {
-                    MessageUtil.sendMessage(highestBidder, "§aYour bid of " + MessageUtil.formatPrice(currentBid) + " was refunded.");
+        List<CompletableFuture<?>> steps = new ArrayList<>();
+        if (!finalState.hasBidder()) {
+            MessageUtil.broadcast(MessageEnum.AUCTION_CANCELLED.component("id", id, "reason", "No bids were placed."));
+            if (type == AuctionType.ITEM && item != null && ownerUuid != null) {
+                steps.add(settlementStep(done, () -> returnItemToOwner("Your auctioned item was returned (no bids)."),
+                        LedgerEntryType.ITEM_RETURNED));
+            }
+        } else {
+            steps.add(settlementStep(done, () -> handleWinner(finalState), LedgerEntryType.ITEM_DELIVERED));
+            steps.add(settlementStep(done, () -> handlePayment(finalState), LedgerEntryType.PAYOUT, LedgerEntryType.PAYOUT_FAILED));
+            steps.add(settlementStep(done, () -> broadcastEndMessage(finalState), LedgerEntryType.WIN));
+        }
+        CompletableFuture.allOf(steps.toArray(new CompletableFuture<?>[0])).whenComplete((result, error) -> {
+            if (error != null) {
+                // The steps that did finish are in the ledger, so the next start only retries the rest.
+                plugin.getLogger().severe("The settlement of auction #" + id + " did not complete. It stays ENDING and the "
+                        + "unfinished steps are retried on the next start.");
+                return;
+            }
+            plugin.getAuctionJournal().settle(this, AuctionStatus.ENDED);
+        });
+    }
+
+    /**
+     * Runs one step of the settlement unless the ledger already has one of its entries, in
+     * which case it is logged for review instead of repeated.
+     */
+    private CompletableFuture<?> settlementStep(Set<LedgerEntryType> done, Supplier<CompletableFuture<?>> step, LedgerEntryType... recordedAs) {
+        for (LedgerEntryType entryType : recordedAs) {
+            if (done.contains(entryType)) {
+                plugin.getLogger().warning("Auction #" + id + " already has a " + entryType + " entry in the bid ledger, so that "
+                        + "step of its settlement was not repeated. Check /auction ledger " + id + " if it looks incomplete.");
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        return step.get();
+    }
+
+    public void cancel() {
+        BidState finalState = close();
+        if (finalState == null) {
+            return;
+        }
+        plugin.getAuctionJournal().settle(this, AuctionStatus.CANCELLED);
+        // Inline on the main thread, so cancelling from onDisable still refunds before shutdown.
+        runSync(() -> {
+            plugin.getAuctionManager().getBidBroadcaster().flush(id);
+            MessageUtil.broadcast(MessageEnum.AUCTION_CANCELLED.component("id", id, "reason", "The auction was cancelled by an admin."));
+
+            if (finalState.hasBidder()) {
+                plugin.getEconomyManager().deposit(Bukkit.getOfflinePlayer(finalState.bidderId()), finalState.amount()).whenComplete((refunded, error) -> {
+                    if (error != null || !Boolean.TRUE.equals(refunded)) {
+                        plugin.getLogger().severe("CRITICAL: Failed to refund " + finalState.amount() + " to " + finalState.bidderName() +
+                                " after auction #" + id + " was cancelled. Manual intervention required.");
+                        ledger(LedgerEntryType.REFUND_FAILED, finalState.bidderId(), finalState.bidderName(), finalState.amount(), "auction cancelled");
+                    } else {
+                        ledger(LedgerEntryType.REFUND, finalState.bidderId(), finalState.bidderName(), finalState.amount(), "auction cancelled");
+                    }
+                });
+                Player bidder = Bukkit.getPlayer(finalState.bidderId());
+                if (bidder != null && bidder.isOnline()) {
+                    MessageUtil.sendMessage(bidder, "§aYour bid of " + MessageUtil.formatPrice(finalState.amount()) + " was refunded.");
                 }
             }
 
@@ -112,130 +247,260 @@ public class Auction {
         });
     }
 
-    public synchronized boolean placeBid(Player player, double amount) {
-        if (!active) {
-            MessageUtil.sendMessage(player, MessageEnum.NO_AUCTION.get());
-            return false;
+    /**
+     * Atomically closes the auction.
+     *
+     * @return the final state, or null if the auction was already closed by someone else
+     */
+    private BidState close() {
+        while (true) {
+            BidState current = state.get();
+            if (!current.active()) {
+                return null;
+            }
+            BidState closed = current.closed();
+            if (state.compareAndSet(current, closed)) {
+                return closed;
+            }
         }
+    }
 
-        double minIncrement = plugin.getConfigManager().getConfig().getDouble("auction.min-bid-increment", 1.0);
-        double requiredBid = (highestBidder == null) ? currentBid : currentBid + minIncrement;
-
-        if (amount < requiredBid) {
-            MessageUtil.sendMessage(player, MessageEnum.INVALID_AMOUNT.get("amount", MessageUtil.formatPrice(requiredBid)));
-            return false;
+    /**
+     * Places a bid without blocking the calling thread. The bid is checked, the balance is
+     * checked through the economy futures, and an affordable bid is offered to
+     * {@link AuctionBidEvent} listeners on the main thread; funds are then withdrawn and the
+     * bid is committed with a compare-and-set on the auction's
+     * {@link BidState}. Competing bids reserve funds in parallel; a bid that loses the race is
+     * re-validated against the newer state and refunded if it no longer wins. Refunds and
+     * broadcasts are published through the {@link BidSequencer} in commit order.
+     *
+     * @return a future completing with true once the bid has been committed
+     */
+    public CompletableFuture<Boolean> placeBid(Player player, double amount) {
+        if (!Bukkit.isPrimaryThread()) {
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            Bukkit.getScheduler().runTask(plugin, () -> placeBid(player, amount).whenComplete((accepted, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(accepted);
+                }
+            }));
+            return result;
         }
 
-        if (!plugin.getEconomyManager().has(player, amount).join()) {
-            MessageUtil.sendMessage(player, MessageEnum.NOT_ENOUGH_MONEY.get());
-            return false;
+        // One snapshot for the whole bid, so a reload half way cannot apply two different rule sets.
+        AuctionSettings settings = plugin.getConfigManager().getAuctionSettings();
+        if (!validateBid(player, amount, state.get(), settings)) {
+            return CompletableFuture.completedFuture(false);
         }
 
-        AuctionBidEvent bidEvent = new AuctionBidEvent(this, player, amount);
-        Bukkit.getPluginManager().callEvent(bidEvent);
-        if (bidEvent.isCancelled()) {
+        // Listeners only see bids the player can afford, as before bids became asynchronous.
+        return plugin.getEconomyManager().has(player, amount)
+                .thenComposeAsync(hasEnough -> {
+                    if (!hasEnough) {
+                        MessageUtil.sendMessage(player, MessageEnum.NOT_ENOUGH_MONEY.component());
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    AuctionBidEvent bidEvent = new AuctionBidEvent(this, player, amount);
+                    Bukkit.getPluginManager().callEvent(bidEvent);
+                    return bidEvent.isCancelled() ? CompletableFuture.completedFuture(false) : withdrawFunds(player, amount);
+                }, Bukkit.getScheduler().getMainThreadExecutor(plugin))
+                .thenApply(reserved -> reserved && commitBid(player, amount, settings))
+                .exceptionally(error -> {
+                    plugin.getLogger().log(Level.SEVERE, "Bid pipeline failed for " + player.getName() + " on auction #" + id, error);
+                    return false;
+                });
+    }
+
+    private boolean validateBid(Player player, double amount, BidState current, AuctionSettings settings) {
+        if (!current.acceptsBidsAt(System.currentTimeMillis())) {
+            runSync(() -> MessageUtil.sendMessage(player, MessageEnum.NO_AUCTION.component()));
             return false;
         }
 
-        boolean withdrawn = plugin.getEconomyManager().withdraw(player, amount).join();
-        if (!withdrawn) {
-            MessageUtil.sendMessage(player, "§cFailed to withdraw funds. Please try again.");
-            plugin.getLogger().warning("Failed to withdraw " + amount + " from player " + player.getName() + " for auction bid");
+        double requiredBid = current.requiredBid(settings.minBidIncrement());
+        if (amount < requiredBid) {
+            runSync(() -> MessageUtil.sendMessage(player, MessageEnum.INVALID_AMOUNT.component("amount", MessageUtil.formatPrice(requiredBid))));
             return false;
         }
+        return true;
+    }
+
+    private CompletableFuture<Boolean> withdrawFunds(Player player, double amount) {
+        return plugin.getEconomyManager().withdraw(player, amount).thenApply(withdrawn -> {
+            if (!withdrawn) {
+                runSync(() -> MessageUtil.sendMessage(player, "§cFailed to withdraw funds. Please try again."));
+                plugin.getLogger().warning("Failed to withdraw " + amount + " from player " + player.getName() + " for auction bid");
+            }
+            return withdrawn;
+        });
+    }
+
+    private boolean commitBid(Player player, double amount, AuctionSettings settings) {
+        int timeExtension = settings.bidTimeExtension();
+        int timeThreshold = settings.bidTimeThreshold();
+        double minIncrement = settings.minBidIncrement();
+
+        while (true) {
+            BidState current = state.get();
+            long now = System.currentTimeMillis();
+            // A bid arriving after the end time must not extend an auction the expiry task has yet to close.
+            if (!current.acceptsBidsAt(now) || amount < current.requiredBid(minIncrement)) {
+                rejectReservedBid(player, amount, current, now, minIncrement);
+                return false;
+            }
 
-        Player previousBidder = highestBidder;
-        double previousBid = currentBid;
-        if (previousBidder != null) {
-            boolean refunded = plugin.getEconomyManager().deposit(previousBidder, previousBid).join();
-            if (!refunded) {
-                plugin.getLogger().severe("CRITICAL: Failed to refund " + previousBid + " to " + previousBidder.getName() +
-                        " after accepting bid from " + player.getName() + ". Manual intervention required.");
-            } else if (previousBidder.isOnline()) {
-                MessageUtil.sendMessage(previousBidder, MessageEnum.OUTBID.get("player", player.getName()));
+            boolean timeExtended = current.secondsRemaining(now) < timeThreshold;
+            long endTime = timeExtended ? current.endTime() + timeExtension * 1000L : current.endTime();
+            BidState next = current.withBid(amount, player.getUniqueId(), player.getName(), endTime);
+            if (state.compareAndSet(current, next)) {
+                ledger(LedgerEntryType.BID, player.getUniqueId(), player.getName(), amount,
+                        timeExtended ? "extended by " + timeExtension + "s" : null);
+                plugin.getAuctionJournal().record(this);
+                bidSequencer.publish(next.sequence(), () -> {
+                    refundPreviousBidder(current, player);
+                    broadcastBid(player, amount, timeExtended, timeExtension);
+                });
+                return true;
             }
         }
+    }
 
-        currentBid = amount;
-        highestBidder = player;
+    private void rejectReservedBid(Player player, double amount, BidState current, long now, double minIncrement) {
+        // The auction closed, or a higher bid won the race, while funds were being reserved.
+        plugin.getEconomyManager().deposit(player, amount).whenComplete((refunded, error) -> {
+            if (error != null || !Boolean.TRUE.equals(refunded)) {
+                plugin.getLogger().severe("CRITICAL: Failed to return " + amount + " to " + player.getName() +
+                        " for a bid that could not be committed on auction #" + id + ". Manual intervention required.");
+                ledger(LedgerEntryType.REFUND_FAILED, player.getUniqueId(), player.getName(), amount, "bid not committed");
+            } else {
+                ledger(LedgerEntryType.REFUND, player.getUniqueId(), player.getName(), amount, "bid not committed");
+            }
+        });
+        runSync(() -> MessageUtil.sendMessage(player, current.acceptsBidsAt(now)
+                ? MessageEnum.INVALID_AMOUNT.component("amount", MessageUtil.formatPrice(current.requiredBid(minIncrement)))
+                : MessageEnum.NO_AUCTION.component()));
+    }
 
-        int timeExtension = plugin.getConfigManager().getConfig().getInt("auction.bid-time-extension", 30);
-        int timeThreshold = plugin.getConfigManager().getConfig().getInt("auction.bid-time-threshold", 60);
-        boolean timeExtended = false;
-        if (getTimeRemaining() < timeThreshold) {
-            endTime += timeExtension * 1000L;
-            timeExtended = true;
+    private void refundPreviousBidder(BidState previous, Player newBidder) {
+        if (!previous.hasBidder()) {
+            return;
         }
+        OfflinePlayer previousBidder = Bukkit.getOfflinePlayer(previous.bidderId());
+        plugin.getEconomyManager().deposit(previousBidder, previous.amount()).whenComplete((refunded, error) -> {
+            if (error != null || !Boolean.TRUE.equals(refunded)) {
+                plugin.getLogger().severe("CRITICAL: Failed to refund " + previous.amount() + " to " + previous.bidderName() +
+                        " after accepting bid from " + newBidder.getName() + ". Manual intervention required.");
+                ledger(LedgerEntryType.REFUND_FAILED, previous.bidderId(), previous.bidderName(), previous.amount(), "outbid by " + newBidder.getName());
+            } else {
+                ledger(LedgerEntryType.REFUND, previous.bidderId(), previous.bidderName(), previous.amount(), "outbid by " + newBidder.getName());
+                runSync(() -> {
+                    Player online = Bukkit.getPlayer(previous.bidderId());
+                    if (online != null && online.isOnline()) {
+                        MessageUtil.sendMessage(online, MessageEnum.OUTBID.component("player", newBidder.getName()));
+                    }
+                });
+            }
+        });
+    }
 
-        String timeExtensionText = timeExtended ? MessageEnum.TIME_EXTENSION.get("seconds", String.valueOf(timeExtension)) : "";
-        Bukkit.broadcastMessage(MessageEnum.NEW_BID.get(
-                "player", player.getName(),
-                "amount", MessageUtil.formatPrice(amount),
-                "time_extension", timeExtensionText
-        ));
+    private void broadcastBid(Player player, double amount, boolean timeExtended, int timeExtension) {
+        runSync(() -> plugin.getAuctionManager().getBidBroadcaster()
+                .bidPlaced(id, player.getName(), amount, timeExtended ? timeExtension : 0));
+    }
 
-        return true;
+    private void ledger(LedgerEntryType type, UUID playerUuid, String playerName, double amount, String note) {
+        plugin.getBidLedger().append(id, type, playerUuid, playerName, amount, note);
     }
 
-    private void handleWinner() {
-        if (highestBidder.isOnline()) {
+    private void runSync(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    private CompletableFuture<?> handleWinner(BidState finalState) {
+        Player winner = Bukkit.getPlayer(finalState.bidderId());
+        CompletableFuture<?> saved = CompletableFuture.completedFuture(null);
+        if (winner != null && winner.isOnline()) {
             if (type == AuctionType.ITEM && item != null) {
-                Map<Integer, ItemStack> couldNotFit = highestBidder.getInventory().addItem(item.clone());
+                Map<Integer, ItemStack> couldNotFit = winner.getInventory().addItem(item.clone());
+                // The item is in the winner's hands; a failed save of the overflow below is logged, not redelivered.
+                ledger(LedgerEntryType.ITEM_DELIVERED, finalState.bidderId(), finalState.bidderName(), 0,
+                        couldNotFit.isEmpty() ? "inventory" : "inventory, overflow to claim queue");
                 if (!couldNotFit.isEmpty()) {
                     // FIXED: Add error handling for database futures
-                    plugin.getDatabaseManager().addPendingReward(highestBidder.getUniqueId(), couldNotFit.get(0), "Auction win (inventory full)")
+                    saved = plugin.getDatabaseManager().addPendingReward(winner.getUniqueId(), couldNotFit.get(0), "Auction win (inventory full)")
                             .whenComplete((result, error) -> {
                                 if (error != null) {
-                                    plugin.getLogger().severe("Failed to save pending reward for " + highestBidder.getName() + ": " + error.getMessage());
+                                    plugin.getLogger().severe("Failed to save pending reward for " + winner.getName() + ": " + error.getMessage());
                                 }
                             });
-                    MessageUtil.sendMessage(highestBidder, "§eYour inventory was full! The won item has been sent to your /claim queue.");
+                    MessageUtil.sendMessage(winner, "§eYour inventory was full! The won item has been sent to your /claim queue.");
                 }
-                MessageUtil.sendMessage(highestBidder, MessageEnum.WIN_MESSAGE.get("item", getRewardName(), "amount", MessageUtil.formatPrice(currentBid)));
+                MessageUtil.sendMessage(winner, MessageEnum.WIN_MESSAGE.component("item", getRewardName(), "amount", MessageUtil.formatPrice(finalState.amount())));
             } else if (type == AuctionType.COMMAND && command != null) {
                 // SECURITY FIX: Sanitize player name to prevent command injection
-                String sanitizedPlayerName = InputSanitizer.sanitizePlayerName(highestBidder.getName());
+                String sanitizedPlayerName = InputSanitizer.sanitizePlayerName(winner.getName());
                 String formattedCommand = command.replace("%player%", sanitizedPlayerName);
 
-                plugin.getLogger().info("Executing auction command: " + InputSanitizer.sanitizeForLogging(formattedCommand) + " for player: " + highestBidder.getName());
+                plugin.getLogger().info("Executing auction command: " + InputSanitizer.sanitizeForLogging(formattedCommand) + " for player: " + winner.getName());
                 Bukkit.dispatchCommand(Bukkit.getConsoleSender(), formattedCommand);
-                MessageUtil.sendMessage(highestBidder, MessageEnum.WIN_MESSAGE.get("item", getRewardName(), "amount", MessageUtil.formatPrice(currentBid)));
+                ledger(LedgerEntryType.ITEM_DELIVERED, finalState.bidderId(), finalState.bidderName(), 0, "command");
+                MessageUtil.sendMessage(winner, MessageEnum.WIN_MESSAGE.component("item", getRewardName(), "amount", MessageUtil.formatPrice(finalState.amount())));
             }
         } else {
             if (type == AuctionType.ITEM && item != null) {
-                plugin.getDatabaseManager().addPendingReward(highestBidder.getUniqueId(), item, "Auction win")
+                saved = plugin.getDatabaseManager().addPendingReward(finalState.bidderId(), item, "Auction win")
                         .whenComplete((result, error) -> {
                             if (error != null) {
-                                plugin.getLogger().severe("Failed to save pending reward for " + highestBidder.getName() + ": " + error.getMessage());
+                                plugin.getLogger().severe("Failed to save pending reward for " + finalState.bidderName() + ": " + error.getMessage());
+                            } else {
+                                ledger(LedgerEntryType.ITEM_DELIVERED, finalState.bidderId(), finalState.bidderName(), 0, "claim queue");
                             }
                         });
             }
         }
+        return saved;
     }
 
-    private void handlePayment() {
-        if (ownerUuid == null) return;
-
-        double taxRate = plugin.getConfigManager().getConfig().getDouble("auction.sales-tax-rate", 0.0);
-        double tax = currentBid * taxRate;
-        double finalAmount = currentBid - tax;
-
-        Player owner = Bukkit.getPlayer(ownerUuid);
-        if (owner != null) {
-            plugin.getEconomyManager().deposit(owner, finalAmount);
-            if (owner.isOnline()) {
-                MessageUtil.sendMessage(owner, "§aYou have received " + MessageUtil.formatPrice(finalAmount) + " for your auction (after tax).");
+    private CompletableFuture<?> handlePayment(BidState finalState) {
+        if (ownerUuid == null) return CompletableFuture.completedFuture(null);
+
+        double taxRate = plugin.getConfigManager().getAuctionSettings().salesTaxRate();
+        double tax = finalState.amount() * taxRate;
+        double finalAmount = finalState.amount() - tax;
+
+        // Paid even when the seller is offline, which is the usual case for auctions settled on startup.
+        String note = "tax " + MessageUtil.formatPrice(tax);
+        CompletableFuture<?> payout = plugin.getEconomyManager().deposit(Bukkit.getOfflinePlayer(ownerUuid), finalAmount).whenComplete((paid, error) -> {
+            if (error != null || !Boolean.TRUE.equals(paid)) {
+                plugin.getLogger().severe("CRITICAL: Failed to pay " + finalAmount + " to " + ownerName +
+                        " for auction #" + id + ". Manual intervention required.");
+                ledger(LedgerEntryType.PAYOUT_FAILED, ownerUuid, ownerName, finalAmount, note);
+            } else {
+                ledger(LedgerEntryType.PAYOUT, ownerUuid, ownerName, finalAmount, note);
             }
+        });
+        Player owner = Bukkit.getPlayer(ownerUuid);
+        if (owner != null && owner.isOnline()) {
+            MessageUtil.sendMessage(owner, "§aYou have received " + MessageUtil.formatPrice(finalAmount) + " for your auction (after tax).");
         }
+        return payout;
     }
 
-    private void returnItemToOwner(String reason) {
+    private CompletableFuture<?> returnItemToOwner(String reason) {
         Player owner = Bukkit.getPlayer(ownerUuid);
+        CompletableFuture<?> saved = CompletableFuture.completedFuture(null);
         if (owner != null && owner.isOnline()) {
             Map<Integer, ItemStack> couldNotFit = owner.getInventory().addItem(item.clone());
+            ledger(LedgerEntryType.ITEM_RETURNED, ownerUuid, ownerName, 0, reason);
             if (!couldNotFit.isEmpty()) {
                 // FIXED: Add error handling for database futures
-                plugin.getDatabaseManager().addPendingReward(ownerUuid, couldNotFit.get(0), "Auction item returned (inventory full)")
+                saved = plugin.getDatabaseManager().addPendingReward(ownerUuid, couldNotFit.get(0), "Auction item returned (inventory full)")
                         .whenComplete((result, error) -> {
                             if (error != null) {
                                 plugin.getLogger().severe("Failed to return item to owner " + ownerUuid + ": " + error.getMessage());
@@ -243,38 +508,53 @@ public class Auction {
                         });
             }
         } else {
-            plugin.getDatabaseManager().addPendingReward(ownerUuid, item.clone(), "Auction item returned")
+            saved = plugin.getDatabaseManager().addPendingReward(ownerUuid, item.clone(), "Auction item returned")
                     .whenComplete((result, error) -> {
                         if (error != null) {
                             plugin.getLogger().severe("Failed to return item to owner " + ownerUuid + ": " + error.getMessage());
+                        } else {
+                            ledger(LedgerEntryType.ITEM_RETURNED, ownerUuid, ownerName, 0, reason);
                         }
                     });
         }
         if (owner != null && owner.isOnline()) {
             MessageUtil.sendMessage(owner, "§a" + reason);
         }
+        return saved;
     }
 
-    private void broadcastEndMessage() {
-        String finalRewardName = getRewardName().replace("%player%", highestBidder.getName());
-        Bukkit.broadcastMessage(MessageEnum.AUCTION_ENDED.get(
-                "player", highestBidder.getName(),
-                "amount", MessageUtil.formatPrice(currentBid),
+    private CompletableFuture<?> broadcastEndMessage(BidState finalState) {
+        String finalRewardName = getRewardName().replace("%player%", finalState.bidderName());
+        MessageUtil.broadcast(MessageEnum.AUCTION_ENDED.component(
+                "id", id,
+                "player", finalState.bidderName(),
+                "amount", MessageUtil.formatPrice(finalState.amount()),
                 "item", finalRewardName
         ));
-        plugin.getDatabaseManager().saveAuctionResult(
-                highestBidder.getName(),
-                highestBidder.getUniqueId(),
-                currentBid,
+        return plugin.getDatabaseManager().saveAuctionResult(
+                finalState.bidderName(),
+                finalState.bidderId(),
+                finalState.amount(),
                 type.name(),
                 finalRewardName
         ).whenComplete((result, error) -> {
             if (error != null) {
                 plugin.getLogger().severe("Failed to save auction result: " + error.getMessage());
+            } else {
+                ledger(LedgerEntryType.WIN, finalState.bidderId(), finalState.bidderName(), finalState.amount(), finalRewardName);
+                plugin.getPlayerStatsCache().refresh(finalState.bidderId());
+                plugin.getLeaderboardService().recordResult(finalState.bidderId());
             }
         });
     }
 
+    AuctionStateRecord toRecord(AuctionStatus status) {
+        BidState current = state.get();
+        return new AuctionStateRecord(id, type.name(), status, item, command, commandDisplayName, customName, startPrice,
+                duration, ownerName, ownerUuid, current.amount(), current.bidderId(), current.bidderName(),
+                current.endTime(), current.sequence());
+    }
+
     public String getRewardName() {
         if (customName != null && !customName.isEmpty()) {
             return MessageUtil.colorize(customName);
@@ -290,17 +570,30 @@ public class Auction {
         return "Unknown Reward";
     }
 
+    /**
+     * @return a consistent snapshot of the current bid, bidder, end time and open flag
+     */
+    public BidState getState() { return state.get(); }
+
     public int getTimeRemaining() {
-        if (!active) return 0;
-        long remaining = endTime - System.currentTimeMillis();
-        return Math.max(0, (int) (remaining / 1000));
+        return state.get().secondsRemaining(System.currentTimeMillis());
     }
-    public boolean isActive() { return active; }
+    public int getId() { return id; }
+    public boolean isActive() { return state.get().active(); }
     public AuctionType getType() { return type; }
     public ItemStack getItem() { return item; }
     public String getCommand() { return command; }
-    public double getCurrentBid() { return currentBid; }
-    public Player getHighestBidder() { return highestBidder; }
+    public double getCurrentBid() { return state.get().amount(); }
+    public UUID getHighestBidderId() { return state.get().bidderId(); }
+    public String getHighestBidderName() { return state.get().bidderName(); }
+
+    /**
+     * @return the highest bidder if they are online, otherwise null
+     */
+    public Player getHighestBidder() {
+        UUID bidderId = state.get().bidderId();
+        return bidderId != null ? Bukkit.getPlayer(bidderId) : null;
+    }
     public int getDuration() { return duration; }
     public String getOwnerName() { return ownerName; }
     public UUID getOwnerUuid() { return ownerUuid; }
@@ -0,0 +1,184 @@
+package org.djtmk.beeauction.auctions;
+
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.util.MessageUtil;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Draws one boss bar per running auction. Everything here runs on the main thread, once per
+ * tick: bars are created and removed to match the running auctions, and a bar is only redrawn
+ * when its auction's {@link BidState} has a new bid or a new second to show. Only the title,
+ * progress or color that actually changed is sent to clients.
+ * <p>
+ * Viewers are kept in a set updated on join and quit (see
+ * {@link org.djtmk.beeauction.listeners.AuctionBarListener}), so a new bar is shown to exactly
+ * that set and nothing ever scans the online players. Players can hide the bars with
+ * /auctionbar; the choice is stored in their persistent data and survives relogs.
+ */
+public class AuctionBarRenderer extends BukkitRunnable {
+    private final BeeAuction plugin;
+    private final AuctionManager auctionManager;
+    private final NamespacedKey hiddenKey;
+    private final Set<Player> viewers = new HashSet<>();
+    private final Map<Integer, Bar> bars = new HashMap<>();
+
+    public AuctionBarRenderer(BeeAuction plugin, AuctionManager auctionManager) {
+        this.plugin = plugin;
+        this.auctionManager = auctionManager;
+        this.hiddenKey = new NamespacedKey(plugin, "hide_auction_bar");
+    }
+
+    public void start() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            addViewer(player);
+        }
+        runTaskTimer(plugin, 1, 1);
+    }
+
+    public void stop() {
+        cancel();
+        for (Bar bar : bars.values()) {
+            bar.bossBar.removeAll();
+        }
+        bars.clear();
+        viewers.clear();
+    }
+
+    public void addViewer(Player player) {
+        if (isHidden(player) || !viewers.add(player)) {
+            return;
+        }
+        for (Bar bar : bars.values()) {
+            bar.bossBar.addPlayer(player);
+        }
+    }
+
+    public void removeViewer(Player player) {
+        if (!viewers.remove(player)) {
+            return;
+        }
+        for (Bar bar : bars.values()) {
+            bar.bossBar.removePlayer(player);
+        }
+    }
+
+    public boolean isHidden(Player player) {
+        return player.getPersistentDataContainer().has(hiddenKey, PersistentDataType.BYTE);
+    }
+
+    /**
+     * Shows or hides the auction bars for a player and remembers the choice.
+     *
+     * @return true if the bars are now shown
+     */
+    public boolean toggle(Player player) {
+        PersistentDataContainer data = player.getPersistentDataContainer();
+        if (isHidden(player)) {
+            data.remove(hiddenKey);
+            addViewer(player);
+            return true;
+        }
+        removeViewer(player);
+        data.set(hiddenKey, PersistentDataType.BYTE, (byte) 1);
+        return false;
+    }
+
+    @Override
+    public void run() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Integer, Bar>> it = bars.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Bar> entry = it.next();
+            Auction auction = auctionManager.getAuction(entry.getKey());
+            if (auction == null || !auction.isActive()) {
+                entry.getValue().bossBar.removeAll();
+                it.remove();
+            }
+        }
+
+        for (Auction auction : auctionManager.getActiveAuctions()) {
+            BidState snapshot = auction.getState();
+            if (snapshot.active()) {
+                bars.computeIfAbsent(auction.getId(), id -> new Bar(auction)).render(snapshot, now);
+            }
+        }
+    }
+
+    private final class Bar {
+        private final BossBar bossBar;
+        private final int auctionId;
+        private final String rewardName;
+        private final int duration;
+        private long renderedSequence = -1;
+        private int renderedSeconds = -1;
+        private String title = "";
+        private double progress = 1.0;
+        private BarColor color = BarColor.GREEN;
+
+        Bar(Auction auction) {
+            this.auctionId = auction.getId();
+            this.rewardName = auction.getRewardName();
+            this.duration = Math.max(1, auction.getDuration());
+            this.bossBar = Bukkit.createBossBar(title, color, BarStyle.SOLID);
+            for (Player viewer : viewers) {
+                bossBar.addPlayer(viewer);
+            }
+        }
+
+        void render(BidState snapshot, long now) {
+            int seconds = snapshot.secondsRemaining(now);
+            if (snapshot.sequence() == renderedSequence && seconds == renderedSeconds) {
+                return;
+            }
+            renderedSequence = snapshot.sequence();
+            renderedSeconds = seconds;
+
+            String newTitle = title(snapshot, seconds);
+            if (!newTitle.equals(title)) {
+                title = newTitle;
+                bossBar.setTitle(newTitle);
+            }
+            double newProgress = Math.max(0.0, Math.min(1.0, (double) seconds / duration));
+            if (newProgress != progress) {
+                progress = newProgress;
+                bossBar.setProgress(newProgress);
+            }
+            BarColor newColor = seconds <= 10 ? BarColor.RED : seconds <= 30 ? BarColor.YELLOW : BarColor.GREEN;
+            if (newColor != color) {
+                color = newColor;
+                bossBar.setColor(newColor);
+            }
+        }
+
+        private String title(BidState snapshot, int seconds) {
+            StringBuilder title = new StringBuilder(64);
+            title.append("§e#").append(auctionId).append(" §f")
+                    .append(rewardName.replace("%player%", snapshot.hasBidder() ? snapshot.bidderName() : "Winner"));
+            title.append(" §7| §eBid: §a").append(MessageUtil.formatPrice(snapshot.amount()));
+            if (snapshot.hasBidder()) {
+                title.append(" §7| §eBy: §f").append(snapshot.bidderName());
+            }
+            title.append(" §7| §eTime: §f");
+            if (seconds < 60) {
+                title.append(seconds).append('s');
+            } else {
+                title.append(seconds / 60).append("m ").append(seconds % 60).append('s');
+            }
+            return title.toString();
+        }
+    }
+}
@@ -4,8 +4,10 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.persistence.PersistentDataType;
 import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.config.MessageEnum;
 import org.djtmk.beeauction.util.InputSanitizer;
 import org.djtmk.beeauction.util.ItemUtils;
+import org.djtmk.beeauction.util.MessageUtil;
 
 import java.util.Map;
 import java.util.UUID;
@@ -80,8 +82,9 @@ public class AuctionCreationManager {
 
     private void createAuction(Player player, PendingAuction pending) {
         pendingAuctions.remove(player.getUniqueId());
+        boolean started;
         if (pending.isItemAuction()) {
-            plugin.getAuctionManager().startItemAuction(
+            started = plugin.getAuctionManager().startItemAuction(
                     pending.getItem(),
                     pending.getDuration(),
                     pending.getStartPrice(),
@@ -89,7 +92,7 @@ public class AuctionCreationManager {
                     player
             );
         } else {
-            plugin.getAuctionManager().startCommandAuction(
+            started = plugin.getAuctionManager().startCommandAuction(
                     pending.getCommand(),
                     pending.getCommandDisplayName(),
                     pending.getDuration(),
@@ -98,6 +101,23 @@ public class AuctionCreationManager {
                     player.getName()
             );
         }
+
+        if (!started) {
+            // Another auction took the last free slot while this one was being named.
+            MessageUtil.sendMessage(player, MessageEnum.AUCTION_LIMIT_REACHED.get("limit", plugin.getAuctionManager().getMaxConcurrentAuctions()));
+            if (pending.isItemAuction()) {
+                Map<Integer, ItemStack> couldNotFit = player.getInventory().addItem(pending.getItem());
+                for (ItemStack leftover : couldNotFit.values()) {
+                    plugin.getDatabaseManager().addPendingReward(player.getUniqueId(), leftover, "Auction could not be started")
+                            .whenComplete((result, error) -> {
+                                if (error != null) {
+                                    plugin.getLogger().severe("Failed to return item to " + player.getName() + " after failed start: " + error.getMessage());
+                                }
+                            });
+                }
+            }
+            return;
+        }
         lastAuctionCreation.put(player.getUniqueId(), System.currentTimeMillis());
     }
 
@@ -0,0 +1,76 @@
+package org.djtmk.beeauction.auctions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Single shared timer that ends auctions when their end time is reached. Deadlines live in the
+ * executor's delay queue (a heap keyed by fire time), so the cost is one thread for any number
+ * of auctions and no polling.
+ * <p>
+ * Anti-snipe extensions need no work here: a bid only moves the end time inside the auction's
+ * {@link BidState}. When the original deadline fires, the current end time is re-read and the
+ * check is re-armed for the remainder if the auction was extended.
+ */
+public class AuctionExpiryScheduler {
+
+    private final ScheduledExecutorService timer;
+    private final Map<Integer, ScheduledFuture<?>> deadlines = new ConcurrentHashMap<>();
+    private final Consumer<Auction> onExpire;
+
+    public AuctionExpiryScheduler(Consumer<Auction> onExpire) {
+        this.onExpire = onExpire;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "BeeAuction-Expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void schedule(Auction auction) {
+        arm(auction, auction.getState().millisRemaining(System.currentTimeMillis()));
+    }
+
+    public void cancel(int auctionId) {
+        ScheduledFuture<?> deadline = deadlines.remove(auctionId);
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+    }
+
+    public void shutdown() {
+        deadlines.values().forEach(deadline -> deadline.cancel(false));
+        deadlines.clear();
+        timer.shutdownNow();
+    }
+
+    private void arm(Auction auction, long delayMillis) {
+        if (timer.isShutdown()) {
+            return;
+        }
+        deadlines.put(auction.getId(), timer.schedule(() -> check(auction), delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private void check(Auction auction) {
+        BidState state = auction.getState();
+        if (!state.active()) {
+            deadlines.remove(auction.getId());
+            return;
+        }
+
+        long remaining = state.millisRemaining(System.currentTimeMillis());
+        if (remaining > 0) {
+            // Extended by a late bid since this deadline was armed.
+            arm(auction, remaining);
+            return;
+        }
+
+        deadlines.remove(auction.getId());
+        onExpire.accept(auction);
+    }
+}
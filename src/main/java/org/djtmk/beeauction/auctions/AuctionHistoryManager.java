@@ -2,6 +2,8 @@ package org.djtmk.beeauction.auctions;
 
 import org.djtmk.beeauction.BeeAuction;
 import org.djtmk.beeauction.data.AuctionHistoryEntry;
+import org.djtmk.beeauction.data.HistoryPage;
+import org.djtmk.beeauction.data.HistoryQuery;
 import org.djtmk.beeauction.mysql.AsyncDatabaseManager;
 
 import java.util.List;
@@ -23,4 +25,8 @@ public class AuctionHistoryManager {
     public CompletableFuture<List<AuctionHistoryEntry>> getHistory() {
         return dbManager.getAuctionHistory();
     }
+
+    public CompletableFuture<HistoryPage> getHistory(HistoryQuery query) {
+        return dbManager.queryHistory(query);
+    }
 }
@@ -0,0 +1,189 @@
+package org.djtmk.beeauction.auctions;
+
+import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.data.AuctionStateRecord;
+import org.djtmk.beeauction.data.AuctionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Keeps the auctions table in step with the live auctions so they survive a restart or crash.
+ * Starts, committed bids and settlements are recorded here and written by one thread with
+ * group commit: everything recorded while a transaction is in flight goes into the next one,
+ * and only the newest state of each auction is written. An idle journal writes straight away,
+ * so a bid is normally durable one transaction after it was accepted.
+ */
+public class AuctionJournal {
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final BeeAuction plugin;
+    private final boolean resumeAfterRestart;
+    private final long minRemainingMillis;
+    private final Map<Integer, AuctionStateRecord> pending = new ConcurrentHashMap<>();
+    // Auctions closed and not yet written in their final status. Late writes of their open
+    // state are dropped so a closed auction can never be reopened and settled twice.
+    private final Set<Integer> settled = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService writer;
+    private volatile boolean enabled;
+
+    public AuctionJournal(BeeAuction plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfig().getBoolean("auction.recovery.enabled", true);
+        this.resumeAfterRestart = plugin.getConfig().getBoolean("auction.recovery.resume-after-restart", true);
+        this.minRemainingMillis = Math.max(0L, plugin.getConfig().getLong("auction.recovery.min-remaining-seconds", 60)) * 1000L;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "BeeAuction-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stops recording for the rest of the session, used when the stored auctions could not be
+     * read and new writes might overwrite them.
+     */
+    public void disable() {
+        enabled = false;
+        pending.clear();
+    }
+
+    /**
+     * @return true if running auctions are left open on shutdown and resumed on the next start
+     */
+    public boolean isResumeAfterRestart() {
+        return enabled && resumeAfterRestart;
+    }
+
+    /**
+     * @return the least time a resumed auction is given, so players can still react to it
+     */
+    public long getMinRemainingMillis() {
+        return minRemainingMillis;
+    }
+
+    /**
+     * Records the auction's current bid state.
+     */
+    public void record(Auction auction) {
+        // A bid that raced the close must not bring the auction back once its row is gone.
+        if (!auction.isActive()) {
+            return;
+        }
+        write(auction.toRecord(AuctionStatus.OPEN));
+    }
+
+    /**
+     * Records that the auction was closed: ENDING while the winner and seller are still being
+     * handled, then its final status once they have been.
+     */
+    public void settle(Auction auction, AuctionStatus status) {
+        write(auction.toRecord(status));
+    }
+
+    /**
+     * Writes whatever is still pending on the calling thread. Call before the database closes.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        List<AuctionStateRecord> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            plugin.getDatabaseManager().saveAuctionStates(batch).join();
+        } catch (CompletionException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to write the final state of " + batch.size()
+                    + " auction(s); they will be recovered from the last state written", e.getCause());
+        }
+    }
+
+    private void write(AuctionStateRecord record) {
+        if (!enabled) {
+            return;
+        }
+        pending.compute(record.id(), (id, queued) -> {
+            if (record.status() == AuctionStatus.OPEN && settled.contains(id)) {
+                return queued;
+            }
+            if (record.status() != AuctionStatus.OPEN) {
+                settled.add(id);
+            }
+            return queued == null || record.supersedes(queued) ? record : queued;
+        });
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writer.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            // Closing; close() writes what is left.
+            flushScheduled.set(false);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<AuctionStateRecord> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            plugin.getDatabaseManager().saveAuctionStates(batch).join();
+            forgetFinished(batch);
+        } catch (CompletionException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write " + batch.size() + " auction state(s), retrying", e.getCause());
+            for (AuctionStateRecord record : batch) {
+                pending.merge(record.id(), record, (queued, failed) -> failed.supersedes(queued) ? failed : queued);
+            }
+            CompletableFuture.delayedExecutor(RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS).execute(this::scheduleFlush);
+        }
+    }
+
+    private void forgetFinished(List<AuctionStateRecord> written) {
+        for (AuctionStateRecord record : written) {
+            if (record.status().isFinal()) {
+                settled.remove(record.id());
+            }
+        }
+    }
+
+    private List<AuctionStateRecord> drain() {
+        List<AuctionStateRecord> batch = new ArrayList<>(pending.size());
+        for (Integer id : pending.keySet()) {
+            AuctionStateRecord record = pending.remove(id);
+            if (record != null) {
+                batch.add(record);
+            }
+        }
+        return batch;
+    }
+}
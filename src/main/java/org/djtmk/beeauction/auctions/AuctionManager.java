@@ -1,7 +1,5 @@
 package org.djtmk.beeauction.auctions;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
@@ -10,6 +8,8 @@ import org.bukkit.scheduler.BukkitTask;
 import org.djtmk.beeauction.BeeAuction;
 import org.djtmk.beeauction.config.AuctionEnum.AuctionType;
 import org.djtmk.beeauction.config.MessageEnum;
+import org.djtmk.beeauction.data.AuctionStateRecord;
+import org.djtmk.beeauction.data.AuctionStatus;
 import org.djtmk.beeauction.events.AuctionStartEvent;
 import org.djtmk.beeauction.util.CommandValidator;
 import org.djtmk.beeauction.util.ItemUtils;
@@ -19,31 +19,41 @@ import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 public class AuctionManager {
     private final BeeAuction plugin;
-    private final Cache<String, Auction> auctionCache;
-    private AuctionTask auctionTask;
+    // Live auctions indexed by id. Each Auction guards its own state, so lookups and
+    // bids on different auctions never contend on a shared lock.
+    private final Map<Integer, Auction> activeAuctions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextAuctionId = new AtomicInteger(1);
+    private final AuctionExpiryScheduler expiryScheduler;
+    private final AuctionBarRenderer barRenderer;
+    private final BidBroadcastCoalescer bidBroadcaster;
     private BukkitTask scheduledTask;
     private final Map<String, Boolean> startedAuctions = new HashMap<>();
     private DayOfWeek lastCheckedDay;
-    private static final String ACTIVE_AUCTION_KEY = "active_auction";
     private final CommandValidator commandValidator;
 
     public AuctionManager(BeeAuction plugin) {
         this.plugin = plugin;
         this.lastCheckedDay = LocalDateTime.now().getDayOfWeek();
         this.commandValidator = new CommandValidator(plugin);
-
-        this.auctionCache = CacheBuilder.newBuilder()
-                .maximumSize(1)
-                .expireAfterWrite(2, TimeUnit.HOURS)
-                .build();
+        this.expiryScheduler = new AuctionExpiryScheduler(this::finishAuction);
+        this.barRenderer = new AuctionBarRenderer(plugin, this);
+        this.barRenderer.start();
+        this.bidBroadcaster = new BidBroadcastCoalescer(plugin);
+        this.bidBroadcaster.start();
 
         if (plugin.getConfigManager().isScheduleEnabled()) {
             scheduleAutoAuctions();
@@ -51,69 +61,181 @@ public class AuctionManager {
     }
 
     public boolean startItemAuction(ItemStack item, int duration, double startPrice, String customName, Player owner) {
-        if (hasActiveAuction()) {
+        if (!canStartAuction()) {
             return false;
         }
-        Auction auction = new Auction(plugin, item, startPrice, duration, customName, owner);
+        Auction auction = new Auction(plugin, nextAuctionId.getAndIncrement(), item, startPrice, duration, customName, owner);
         startAuction(auction);
         return true;
     }
 
     public boolean startCommandAuction(String command, String displayName, int duration, double startPrice, String customName, String ownerName) {
-        if (hasActiveAuction()) {
+        if (!canStartAuction()) {
             return false;
         }
-        Auction auction = new Auction(plugin, command, displayName, startPrice, duration, customName, ownerName);
+        Auction auction = new Auction(plugin, nextAuctionId.getAndIncrement(), command, displayName, startPrice, duration, customName, ownerName);
         startAuction(auction);
         return true;
     }
 
+    /**
+     * Picks up the auctions that were still open when the server last stopped. Those whose end
+     * time passed in the meantime are settled as if they had ended normally; those whose
+     * settlement was cut short only repeat the steps the bid ledger has no record of. The rest resume
+     * with at least auction.recovery.min-remaining-seconds left, or are cancelled and refunded
+     * when auction.recovery.resume-after-restart is off. Runs during enable, before anyone can
+     * bid or a scheduled auction can start, so it waits for the database. New auction ids
+     * continue after the highest id stored.
+     */
+    public void recoverAuctions() {
+        AuctionJournal journal = plugin.getAuctionJournal();
+        List<AuctionStateRecord> open = List.of();
+        try {
+            // Ids stay unique across restarts, so ledger entries of different auctions never mix.
+            int maxId = plugin.getDatabaseManager().getMaxAuctionId().join();
+            nextAuctionId.accumulateAndGet(maxId + 1, Math::max);
+            if (journal.isEnabled()) {
+                open = plugin.getDatabaseManager().loadOpenAuctions().join();
+            }
+        } catch (CompletionException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read stored auctions. Auction state will not be saved this session "
+                    + "so the stored auctions are not overwritten; they are recovered on the next start.", e.getCause());
+            journal.disable();
+            return;
+        }
+
+        for (AuctionStateRecord record : open) {
+            if (AuctionType.ITEM.name().equals(record.auctionType()) && record.item() == null) {
+                plugin.getLogger().severe("Auction #" + record.id() + " was open when the server stopped, but its item could not be read. "
+                        + "It was left in the auctions table. Manual intervention required.");
+                continue;
+            }
+            Auction auction = new Auction(plugin, record);
+            long now = System.currentTimeMillis();
+            if (record.status() == AuctionStatus.ENDING) {
+                plugin.getLogger().info("Finishing the settlement of auction #" + record.id() + ", which was interrupted by a restart");
+                auction.end();
+            } else if (record.endTime() <= now) {
+                plugin.getLogger().info("Settling auction #" + record.id() + ", which ended while the server was offline");
+                auction.end();
+            } else if (!journal.isResumeAfterRestart()) {
+                plugin.getLogger().info("Cancelling auction #" + record.id() + ", which was interrupted by a restart");
+                auction.cancel();
+            } else {
+                auction.resume(now + journal.getMinRemainingMillis());
+                activeAuctions.put(auction.getId(), auction);
+                expiryScheduler.schedule(auction);
+                plugin.getLogger().info("Resumed auction #" + record.id() + " with " + auction.getTimeRemaining() + "s left");
+            }
+        }
+    }
+
     private void startAuction(Auction auction) {
         AuctionStartEvent startEvent = new AuctionStartEvent(auction);
         Bukkit.getPluginManager().callEvent(startEvent);
 
         auction.start();
-        auctionCache.put(ACTIVE_AUCTION_KEY, auction);
-        auctionTask = new AuctionTask(plugin, auction, this);
-        auctionTask.runTaskTimerAsynchronously(plugin, 0, 20);
+        activeAuctions.put(auction.getId(), auction);
+        expiryScheduler.schedule(auction);
     }
 
-    public boolean cancelAuction() {
-        Auction activeAuction = getActiveAuction();
-        if (activeAuction == null) {
+    private void finishAuction(Auction auction) {
+        auction.end();
+        removeAuction(auction.getId());
+    }
+
+    public boolean cancelAuction(int auctionId) {
+        Auction auction = activeAuctions.get(auctionId);
+        if (auction == null) {
             return false;
         }
 
-        activeAuction.cancel();
-        if (auctionTask != null) {
-            auctionTask.cancelTask();
-            auctionTask = null;
-        }
-        clearActiveAuction();
+        expiryScheduler.cancel(auctionId);
+        auction.cancel();
+        removeAuction(auctionId);
         return true;
     }
 
-    public boolean placeBid(Player player, double amount) {
-        Auction activeAuction = getActiveAuction();
-        if (activeAuction == null) {
-            MessageUtil.sendMessage(player, MessageEnum.NO_AUCTION.get());
-            return false;
+    public int cancelAllAuctions() {
+        int cancelled = 0;
+        for (Integer auctionId : activeAuctions.keySet()) {
+            if (cancelAuction(auctionId)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    public CompletableFuture<Boolean> placeBid(Player player, int auctionId, double amount) {
+        Auction auction = activeAuctions.get(auctionId);
+        if (auction == null) {
+            MessageUtil.sendMessage(player, MessageEnum.AUCTION_NOT_FOUND.get("id", auctionId));
+            return CompletableFuture.completedFuture(false);
         }
-        return activeAuction.placeBid(player, amount);
+        return auction.placeBid(player, amount);
     }
 
-    public void clearActiveAuction() {
-        auctionCache.invalidate(ACTIVE_AUCTION_KEY);
-        auctionTask = null;
+    public void removeAuction(int auctionId) {
+        activeAuctions.remove(auctionId);
+    }
+
+    public void shutdown() {
+        expiryScheduler.shutdown();
+        barRenderer.stop();
+        bidBroadcaster.stop();
+        if (scheduledTask != null) {
+            scheduledTask.cancel();
+            scheduledTask = null;
+        }
+    }
+
+    public boolean canStartAuction() {
+        int limit = getMaxConcurrentAuctions();
+        return limit <= 0 || activeAuctions.size() < limit;
+    }
+
+    public int getMaxConcurrentAuctions() {
+        return plugin.getConfigManager().getAuctionSettings().maxConcurrentAuctions();
     }
 
     public boolean hasActiveAuction() {
-        Auction auction = auctionCache.getIfPresent(ACTIVE_AUCTION_KEY);
-        return auction != null && auction.isActive();
+        for (Auction auction : activeAuctions.values()) {
+            if (auction.isActive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Auction getAuction(int auctionId) {
+        return activeAuctions.get(auctionId);
     }
 
+    public AuctionBarRenderer getBarRenderer() {
+        return barRenderer;
+    }
+
+    public BidBroadcastCoalescer getBidBroadcaster() {
+        return bidBroadcaster;
+    }
+
+    public Collection<Auction> getActiveAuctions() {
+        return Collections.unmodifiableCollection(activeAuctions.values());
+    }
+
+    public int getActiveAuctionCount() {
+        return activeAuctions.size();
+    }
+
+    /**
+     * Returns the auction that ends soonest, used wherever a single "current" auction is shown
+     * (placeholders, legacy API callers). Null when nothing is running.
+     */
     public Auction getActiveAuction() {
-        return auctionCache.getIfPresent(ACTIVE_AUCTION_KEY);
+        return activeAuctions.values().stream()
+                .filter(Auction::isActive)
+                .min(Comparator.comparingInt(Auction::getTimeRemaining))
+                .orElse(null);
     }
 
     public void scheduleAutoAuctions() {
@@ -145,7 +267,7 @@ public class AuctionManager {
             lastCheckedDay = currentDay;
         }
 
-        if (hasActiveAuction()) return;
+        if (!canStartAuction()) return;
 
         ConfigurationSection scheduleSection = plugin.getConfigManager().getConfig().getConfigurationSection("schedule");
         if (scheduleSection == null) return;
@@ -177,7 +299,10 @@ public class AuctionManager {
     }
 
     private void startScheduledAuction(Map<?, ?> auctionMap) {
-        if (hasActiveAuction()) return;
+        if (!canStartAuction()) {
+            plugin.getLogger().warning("Skipping scheduled auction '" + auctionMap.get("name") + "': concurrent auction limit reached");
+            return;
+        }
 
         Map<?, ?> rewardMap = (Map<?, ?>) auctionMap.get("reward");
         AuctionType type = AuctionType.valueOf(((String) rewardMap.get("type")).toUpperCase());
@@ -0,0 +1,170 @@
+package org.djtmk.beeauction.auctions;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
+import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.config.MessageEnum;
+import org.djtmk.beeauction.util.MessageUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Announces new bids without flooding chat. The first bid on a quiet auction is announced
+ * straight away and opens a window of auction.bid-broadcast.window-ms; bids inside the window
+ * are folded into one summary ("3 bids, now 12,500 by Steve") sent when it closes, which opens
+ * the next window. A window of 0 announces every bid. Main thread only.
+ * <p>
+ * Each announcement is built once and sent to players by their /bidalerts channel. Only
+ * players who left chat are tracked, so the usual case is a single broadcast.
+ */
+public class BidBroadcastCoalescer {
+    private final BeeAuction plugin;
+    private final NamespacedKey channelKey;
+    private final Map<Integer, Window> windows = new HashMap<>();
+    // Players whose channel is not CHAT.
+    private final Map<Player, BidChannel> channels = new HashMap<>();
+
+    public BidBroadcastCoalescer(BeeAuction plugin) {
+        this.plugin = plugin;
+        this.channelKey = new NamespacedKey(plugin, "bid_channel");
+    }
+
+    public void start() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            addPlayer(player);
+        }
+    }
+
+    public void stop() {
+        for (Window window : windows.values()) {
+            window.task.cancel();
+        }
+        windows.clear();
+        channels.clear();
+    }
+
+    public void addPlayer(Player player) {
+        BidChannel channel = getChannel(player);
+        if (channel != BidChannel.CHAT) {
+            channels.put(player, channel);
+        }
+    }
+
+    public void removePlayer(Player player) {
+        channels.remove(player);
+    }
+
+    public BidChannel getChannel(Player player) {
+        BidChannel channel = BidChannel.parse(player.getPersistentDataContainer().get(channelKey, PersistentDataType.STRING));
+        return channel != null ? channel : BidChannel.CHAT;
+    }
+
+    public void setChannel(Player player, BidChannel channel) {
+        if (channel == BidChannel.CHAT) {
+            player.getPersistentDataContainer().remove(channelKey);
+            channels.remove(player);
+        } else {
+            player.getPersistentDataContainer().set(channelKey, PersistentDataType.STRING, channel.name());
+            channels.put(player, channel);
+        }
+    }
+
+    public void bidPlaced(int auctionId, String playerName, double amount, int extensionSeconds) {
+        long windowTicks = getWindowTicks();
+        if (windowTicks <= 0) {
+            announce(auctionId, 1, playerName, amount, extensionSeconds);
+            return;
+        }
+        Window window = windows.get(auctionId);
+        if (window != null) {
+            window.add(playerName, amount, extensionSeconds);
+            return;
+        }
+        announce(auctionId, 1, playerName, amount, extensionSeconds);
+        openWindow(auctionId, windowTicks);
+    }
+
+    /**
+     * Sends any bids still held for the auction, so they are announced before its result.
+     */
+    public void flush(int auctionId) {
+        Window window = windows.remove(auctionId);
+        if (window == null) {
+            return;
+        }
+        window.task.cancel();
+        if (window.count > 0) {
+            announce(auctionId, window.count, window.playerName, window.amount, window.extensionSeconds);
+        }
+    }
+
+    private void openWindow(int auctionId, long windowTicks) {
+        windows.put(auctionId, new Window(Bukkit.getScheduler().runTaskLater(plugin, () -> closeWindow(auctionId), windowTicks)));
+    }
+
+    private void closeWindow(int auctionId) {
+        Window window = windows.remove(auctionId);
+        if (window == null || window.count == 0) {
+            return;
+        }
+        announce(auctionId, window.count, window.playerName, window.amount, window.extensionSeconds);
+        long windowTicks = getWindowTicks();
+        if (windowTicks > 0) {
+            openWindow(auctionId, windowTicks);
+        }
+    }
+
+    private long getWindowTicks() {
+        long windowMillis = plugin.getConfigManager().getAuctionSettings().bidBroadcastWindowMillis();
+        return windowMillis <= 0 ? 0 : Math.max(1, windowMillis / 50);
+    }
+
+    private void announce(int auctionId, int count, String playerName, double amount, int extensionSeconds) {
+        String extension = extensionSeconds > 0 ? MessageEnum.TIME_EXTENSION.get("seconds", extensionSeconds) : "";
+        String formattedAmount = MessageUtil.formatPrice(amount);
+        Component message = count == 1
+                ? MessageEnum.NEW_BID.component("id", auctionId, "player", playerName, "amount", formattedAmount, "time_extension", extension)
+                : MessageEnum.NEW_BID_SUMMARY.component("id", auctionId, "count", count, "player", playerName, "amount", formattedAmount, "time_extension", extension);
+
+        if (channels.isEmpty()) {
+            MessageUtil.broadcast(message);
+            return;
+        }
+        Bukkit.getConsoleSender().sendMessage(message);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            switch (channels.getOrDefault(player, BidChannel.CHAT)) {
+                case CHAT -> player.sendMessage(message);
+                case ACTIONBAR -> player.sendActionBar(message);
+                case BOSSBAR -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Bids held back while a window is open. Only the latest bid is shown, with the count.
+     */
+    private static final class Window {
+        private final BukkitTask task;
+        private int count;
+        private String playerName;
+        private double amount;
+        private int extensionSeconds;
+
+        Window(BukkitTask task) {
+            this.task = task;
+        }
+
+        void add(String playerName, double amount, int extensionSeconds) {
+            count++;
+            this.playerName = playerName;
+            this.amount = amount;
+            this.extensionSeconds += extensionSeconds;
+        }
+    }
+}
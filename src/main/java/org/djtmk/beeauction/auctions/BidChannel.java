@@ -0,0 +1,27 @@
+package org.djtmk.beeauction.auctions;
+
+import java.util.Locale;
+
+/**
+ * Where a player sees other players' bids. Outbid notices always go to chat.
+ */
+public enum BidChannel {
+    CHAT,
+    ACTIONBAR,
+    // Only the auction boss bars, which already show the current bid.
+    BOSSBAR;
+
+    /**
+     * @return the matching channel, or null if the name is unknown
+     */
+    public static BidChannel parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.djtmk.beeauction.auctions;
+
+import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.data.LedgerEntry;
+import org.djtmk.beeauction.data.LedgerEntryType;
+import org.djtmk.beeauction.data.LedgerQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Append-only record of every bid, refund and settlement, written to bid_ledger. Entries get
+ * their sequence number when they are recorded, so the ledger keeps the order things happened
+ * in even though it is written later. Writes use the same group commit as
+ * {@link AuctionJournal}: one writer thread, and everything recorded while a transaction is in
+ * flight goes into the next one. A batch that fails is kept and retried, never dropped.
+ */
+public class BidLedger {
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_NOTE_LENGTH = 255;
+
+    private final BeeAuction plugin;
+    private final AtomicLong nextSeq = new AtomicLong(1);
+    private final Queue<LedgerEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService writer;
+    // Only touched by the writer thread, and by close() once the writer has stopped.
+    private List<LedgerEntry> failed = List.of();
+    private volatile boolean enabled;
+
+    public BidLedger(BeeAuction plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfig().getBoolean("auction.ledger.enabled", true);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "BeeAuction-Ledger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Continues the sequence after the highest stored entry. Runs during enable and waits for
+     * the database; without a known starting point the ledger stays off for the session.
+     */
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            nextSeq.set(plugin.getDatabaseManager().getMaxLedgerSeq().join() + 1);
+        } catch (CompletionException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read the bid ledger; it is disabled until the next start", e.getCause());
+            enabled = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(int auctionId, LedgerEntryType type, UUID playerUuid, String playerName, double amount, String note) {
+        if (!enabled || playerUuid == null) {
+            return;
+        }
+        if (note != null && note.length() > MAX_NOTE_LENGTH) {
+            note = note.substring(0, MAX_NOTE_LENGTH);
+        }
+        queue.add(new LedgerEntry(nextSeq.getAndIncrement(), auctionId, type, playerUuid, playerName, amount, note, null));
+        scheduleFlush();
+    }
+
+    /**
+     * Reads ledger rows after writing everything recorded so far, so a lookup always includes
+     * the caller's own recent entries.
+     */
+    public CompletableFuture<List<LedgerEntry>> query(LedgerQuery query) {
+        CompletableFuture<Void> flushed;
+        try {
+            flushed = CompletableFuture.runAsync(this::flush, writer);
+        } catch (RejectedExecutionException e) {
+            flushed = CompletableFuture.completedFuture(null);
+        }
+        return flushed.thenCompose(v -> plugin.getDatabaseManager().queryLedger(query));
+    }
+
+    /**
+     * Writes whatever is still queued on the calling thread. Call before the database closes.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!failed.isEmpty()) {
+            plugin.getLogger().severe("Could not write " + failed.size() + " bid ledger entries before shutdown (seq "
+                    + failed.get(0).seq() + " onwards). Check the log above for the bids and refunds involved.");
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writer.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            // Closing; close() writes what is left.
+            flushScheduled.set(false);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<LedgerEntry> batch = new ArrayList<>(failed);
+        failed = List.of();
+        LedgerEntry entry;
+        while ((entry = queue.poll()) != null) {
+            batch.add(entry);
+            if (batch.size() >= MAX_BATCH_SIZE) {
+                if (!write(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private boolean write(List<LedgerEntry> batch) {
+        try {
+            plugin.getDatabaseManager().appendLedgerEntries(batch).join();
+            return true;
+        } catch (CompletionException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write " + batch.size() + " bid ledger entries, retrying", e.getCause());
+            failed = batch;
+            CompletableFuture.delayedExecutor(RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS).execute(this::scheduleFlush);
+            return false;
+        }
+    }
+}
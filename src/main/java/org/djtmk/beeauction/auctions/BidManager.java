@@ -3,6 +3,7 @@ package org.djtmk.beeauction.auctions;
 import org.bukkit.entity.Player;
 import org.djtmk.beeauction.BeeAuction;
 
+import java.util.concurrent.CompletableFuture;
 
 public class BidManager {
 
@@ -12,7 +13,7 @@ public class BidManager {
         this.plugin = plugin;
     }
 
-    public boolean placeBid(Auction auction, Player player, double amount) {
+    public CompletableFuture<Boolean> placeBid(Auction auction, Player player, double amount) {
 
         return auction.placeBid(player, amount);
     }
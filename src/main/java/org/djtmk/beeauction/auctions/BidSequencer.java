@@ -0,0 +1,38 @@
+package org.djtmk.beeauction.auctions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Publishes the side effects of committed bids (refunding the previous bidder, broadcasting the
+ * new bid) strictly in commit order. Funds for competing bids are reserved concurrently and the
+ * commit itself is a compare-and-set on {@link BidState}, so effects can arrive here out of
+ * order; they are held back until every lower sequence number has been published.
+ * Published tasks must not block: they only hand work to other executors.
+ */
+public class BidSequencer {
+
+    private final Map<Long, Runnable> waiting = new HashMap<>();
+    private long nextSequence;
+
+    public BidSequencer() {
+        this(1);
+    }
+
+    /**
+     * @param firstSequence the sequence number of the next bid, for an auction restored with
+     *                      earlier bids already committed
+     */
+    public BidSequencer(long firstSequence) {
+        this.nextSequence = firstSequence;
+    }
+
+    public synchronized void publish(long sequence, Runnable effects) {
+        waiting.put(sequence, effects);
+        Runnable next;
+        while ((next = waiting.remove(nextSequence)) != null) {
+            nextSequence++;
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.djtmk.beeauction.auctions;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of an auction's mutable state. {@link Auction} publishes a new instance
+ * through compare-and-set on every change, so readers always see a bid, bidder and end time
+ * that belong together.
+ *
+ * @param sequence number of committed bids; increases by one with every accepted bid
+ */
+public record BidState(double amount, UUID bidderId, String bidderName, long endTime, boolean active, long sequence) {
+
+    public static BidState initial(double startPrice) {
+        return new BidState(startPrice, null, null, 0L, false, 0L);
+    }
+
+    public boolean hasBidder() {
+        return bidderId != null;
+    }
+
+    public BidState opened(long endTime) {
+        return new BidState(amount, bidderId, bidderName, endTime, true, sequence);
+    }
+
+    public BidState closed() {
+        return new BidState(amount, bidderId, bidderName, endTime, false, sequence);
+    }
+
+    public BidState withBid(double amount, UUID bidderId, String bidderName, long endTime) {
+        return new BidState(amount, bidderId, bidderName, endTime, active, sequence + 1);
+    }
+
+    /**
+     * @return true if the auction is open and its end time has not passed; an auction stays
+     *         active until the expiry task closes it, which can run late
+     */
+    public boolean acceptsBidsAt(long now) {
+        return active && now < endTime;
+    }
+
+    public double requiredBid(double minIncrement) {
+        return hasBidder() ? amount + minIncrement : amount;
+    }
+
+    public long millisRemaining(long now) {
+        return active ? Math.max(0L, endTime - now) : 0L;
+    }
+
+    public int secondsRemaining(long now) {
+        return (int) (millisRemaining(now) / 1000);
+    }
+}
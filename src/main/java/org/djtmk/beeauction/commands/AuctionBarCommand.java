@@ -0,0 +1,29 @@
+package org.djtmk.beeauction.commands;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.config.MessageEnum;
+
+public class AuctionBarCommand implements CommandExecutor {
+    private final BeeAuction plugin;
+
+    public AuctionBarCommand(BeeAuction plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage("This command can only be used by players.");
+            return true;
+        }
+
+        Player player = (Player) sender;
+        boolean shown = plugin.getAuctionManager().getBarRenderer().toggle(player);
+        player.sendMessage(shown ? MessageEnum.AUCTION_BAR_SHOWN.get() : MessageEnum.AUCTION_BAR_HIDDEN.get());
+        return true;
+    }
+}
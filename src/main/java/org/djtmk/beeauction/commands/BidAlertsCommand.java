@@ -0,0 +1,65 @@
+package org.djtmk.beeauction.commands;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.auctions.BidBroadcastCoalescer;
+import org.djtmk.beeauction.auctions.BidChannel;
+import org.djtmk.beeauction.config.MessageEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class BidAlertsCommand implements CommandExecutor, TabCompleter {
+    private final BeeAuction plugin;
+
+    public BidAlertsCommand(BeeAuction plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage("This command can only be used by players.");
+            return true;
+        }
+
+        Player player = (Player) sender;
+        BidBroadcastCoalescer broadcaster = plugin.getAuctionManager().getBidBroadcaster();
+        if (args.length == 0) {
+            player.sendMessage(MessageEnum.BID_ALERTS_CURRENT.get("channel", displayName(broadcaster.getChannel(player))));
+            return true;
+        }
+
+        BidChannel channel = BidChannel.parse(args[0]);
+        if (channel == null) {
+            player.sendMessage(MessageEnum.BID_ALERTS_USAGE.get());
+            return true;
+        }
+        broadcaster.setChannel(player, channel);
+        player.sendMessage(MessageEnum.BID_ALERTS_SET.get("channel", displayName(channel)));
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            for (BidChannel channel : BidChannel.values()) {
+                String name = displayName(channel);
+                if (name.startsWith(args[0].toLowerCase(Locale.ROOT))) {
+                    completions.add(name);
+                }
+            }
+        }
+        return completions;
+    }
+
+    private static String displayName(BidChannel channel) {
+        return channel.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -19,7 +19,6 @@ public class BidCommand implements CommandExecutor {
 
     private final Map<UUID, Long> lastBidTime = new ConcurrentHashMap<>();
     private static final long BID_COOLDOWN_MS = 500; // 500ms between bids
-    private static final double DEFAULT_MAX_BID = 1_000_000_000.0; // 1 billion
 
     public BidCommand(BeeAuction plugin) {
         this.plugin = plugin;
@@ -39,18 +38,48 @@ public class BidCommand implements CommandExecutor {
             return true;
         }
 
-        Auction activeAuction = plugin.getAuctionManager().getActiveAuction();
-        if (activeAuction == null || !activeAuction.isActive()) {
+        if (plugin.getAuctionManager().getActiveAuctionCount() == 0) {
             MessageUtil.sendMessage(player, MessageEnum.NO_AUCTION.get());
             return true;
         }
 
+        String bidCommand = plugin.getConfigManager().getPlayerBidCommand();
         if (args.length == 0) {
-            String bidCommand = plugin.getConfigManager().getPlayerBidCommand();
-            MessageUtil.sendMessage(player, "§cUsage: /" + bidCommand + " <amount>");
+            sendAuctionList(player);
+            MessageUtil.sendMessage(player, "§cUsage: /" + bidCommand + " [id] <amount>");
             return true;
         }
 
+        Auction activeAuction;
+        String amountArg;
+        if (args.length >= 2) {
+            int auctionId;
+            try {
+                auctionId = Integer.parseInt(args[0].startsWith("#") ? args[0].substring(1) : args[0]);
+            } catch (NumberFormatException e) {
+                MessageUtil.sendMessage(player, "§cUsage: /" + bidCommand + " [id] <amount>");
+                return true;
+            }
+            activeAuction = plugin.getAuctionManager().getAuction(auctionId);
+            if (activeAuction == null || !activeAuction.isActive()) {
+                MessageUtil.sendMessage(player, MessageEnum.AUCTION_NOT_FOUND.get("id", auctionId));
+                return true;
+            }
+            amountArg = args[1];
+        } else {
+            if (plugin.getAuctionManager().getActiveAuctionCount() > 1) {
+                MessageUtil.sendMessage(player, MessageEnum.AUCTION_ID_REQUIRED.get("command", bidCommand));
+                sendAuctionList(player);
+                return true;
+            }
+            activeAuction = plugin.getAuctionManager().getActiveAuction();
+            if (activeAuction == null) {
+                MessageUtil.sendMessage(player, MessageEnum.NO_AUCTION.get());
+                return true;
+            }
+            amountArg = args[0];
+        }
+
         if (activeAuction.getOwnerUuid() != null && activeAuction.getOwnerUuid().equals(player.getUniqueId())) {
             MessageUtil.sendMessage(player, "§cYou cannot bid on your own auction.");
             return true;
@@ -67,7 +96,7 @@ public class BidCommand implements CommandExecutor {
 
         double amount;
         try {
-            amount = Double.parseDouble(args[0]);
+            amount = Double.parseDouble(amountArg);
             if (amount <= 0) {
                 throw new NumberFormatException();
             }
@@ -76,7 +105,7 @@ public class BidCommand implements CommandExecutor {
             return true;
         }
 
-        double maxBid = plugin.getConfigManager().getConfig().getDouble("auction.max-bid-amount", DEFAULT_MAX_BID);
+        double maxBid = plugin.getConfigManager().getAuctionSettings().maxBidAmount();
         if (!InputSanitizer.isValidAmount(amount, 0.01, maxBid)) {
             MessageUtil.sendMessage(player, "§cInvalid bid amount. Maximum bid is " + maxBid);
             return true;
@@ -88,4 +117,16 @@ public class BidCommand implements CommandExecutor {
 
         return true;
     }
+
+    private void sendAuctionList(Player player) {
+        MessageUtil.sendMessage(player, MessageEnum.AUCTION_LIST_HEADER.get("count", plugin.getAuctionManager().getActiveAuctionCount()));
+        for (Auction auction : plugin.getAuctionManager().getActiveAuctions()) {
+            MessageUtil.sendMessage(player, MessageEnum.AUCTION_LIST_ENTRY.get(
+                    "id", auction.getId(),
+                    "item", auction.getRewardName(),
+                    "amount", MessageUtil.formatPrice(auction.getCurrentBid()),
+                    "time", auction.getTimeRemaining()
+            ));
+        }
+    }
 }
@@ -1,16 +1,42 @@
 package org.djtmk.beeauction.commands;
 
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.auctions.Auction;
 import org.djtmk.beeauction.auctions.AuctionCreationManager;
+import org.djtmk.beeauction.auctions.AuctionManager;
+import org.djtmk.beeauction.config.AuctionEnum.AuctionType;
 import org.djtmk.beeauction.config.MessageEnum;
+import org.djtmk.beeauction.data.AuctionHistoryEntry;
+import org.djtmk.beeauction.data.HistoryCursor;
+import org.djtmk.beeauction.data.HistoryExportJob;
+import org.djtmk.beeauction.data.HistoryQuery;
+import org.djtmk.beeauction.data.LedgerEntry;
+import org.djtmk.beeauction.data.LedgerEntryType;
+import org.djtmk.beeauction.data.LedgerQuery;
+import org.djtmk.beeauction.data.RetentionJob;
+import org.djtmk.beeauction.mysql.ForwardingDatabaseManager;
+import org.djtmk.beeauction.mysql.PendingRewardIndexDatabaseManager;
+import org.djtmk.beeauction.mysql.WriteBehindDatabaseManager;
 import org.djtmk.beeauction.util.MessageUtil;
+import org.djtmk.beeauction.util.MonitoredExecutor;
+
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 public class GlobalAuctionCommand implements CommandExecutor {
+    private static final DateTimeFormatter HISTORY_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+
     private final BeeAuction plugin;
     private final AuctionCreationManager creationManager;
 
@@ -39,14 +65,29 @@ public class GlobalAuctionCommand implements CommandExecutor {
         String startCmd = plugin.getConfigManager().getAdminSubcommandStart();
         String cancelCmd = plugin.getConfigManager().getAdminSubcommandCancel();
         String reloadCmd = plugin.getConfigManager().getAdminSubcommandReload();
+        String statusCmd = plugin.getConfigManager().getAdminSubcommandStatus();
+        String rebuildStatsCmd = plugin.getConfigManager().getAdminSubcommandRebuildStats();
+        String historyCmd = plugin.getConfigManager().getAdminSubcommandHistory();
+        String exportCmd = plugin.getConfigManager().getAdminSubcommandExport();
+        String ledgerCmd = plugin.getConfigManager().getAdminSubcommandLedger();
         String subCmd = args[0].toLowerCase();
 
         if (subCmd.equals(startCmd)) {
             handleStart(sender, args);
         } else if (subCmd.equals(cancelCmd)) {
-            handleCancel(sender);
+            handleCancel(sender, args);
         } else if (subCmd.equals(reloadCmd)) {
             handleReload(sender);
+        } else if (subCmd.equals(statusCmd)) {
+            handleStatus(sender);
+        } else if (subCmd.equals(rebuildStatsCmd)) {
+            handleRebuildStats(sender, label, args);
+        } else if (subCmd.equals(historyCmd)) {
+            handleHistory(sender, label, args);
+        } else if (subCmd.equals(exportCmd)) {
+            handleExport(sender, args);
+        } else if (subCmd.equals(ledgerCmd)) {
+            handleLedger(sender, label, args);
         } else {
             sendUsage(sender);
         }
@@ -65,8 +106,8 @@ public class GlobalAuctionCommand implements CommandExecutor {
             return;
         }
 
-        if (plugin.getAuctionManager().hasActiveAuction()) {
-            MessageUtil.sendMessage(player, MessageEnum.AUCTION_ALREADY_ACTIVE.get());
+        if (!plugin.getAuctionManager().canStartAuction()) {
+            MessageUtil.sendMessage(player, MessageEnum.AUCTION_LIMIT_REACHED.get("limit", plugin.getAuctionManager().getMaxConcurrentAuctions()));
             return;
         }
 
@@ -125,11 +166,46 @@ public class GlobalAuctionCommand implements CommandExecutor {
         creationManager.startCommandAuctionCreation(player, auctionCommand, duration, startPrice);
     }
 
-    private void handleCancel(CommandSender sender) {
-        if (!plugin.getAuctionManager().cancelAuction()) {
+    private void handleCancel(CommandSender sender, String[] args) {
+        AuctionManager auctionManager = plugin.getAuctionManager();
+        if (auctionManager.getActiveAuctionCount() == 0) {
             sender.sendMessage("§c" + MessageEnum.NO_AUCTION.get());
+            return;
+        }
+
+        if (args.length < 2) {
+            if (auctionManager.getActiveAuctionCount() > 1) {
+                sender.sendMessage("§cSeveral auctions are running. Use /" + plugin.getConfigManager().getAdminCommandName()
+                        + " " + plugin.getConfigManager().getAdminSubcommandCancel() + " <id|all>");
+                return;
+            }
+            Auction auction = auctionManager.getActiveAuction();
+            if (auction == null || !auctionManager.cancelAuction(auction.getId())) {
+                sender.sendMessage("§c" + MessageEnum.NO_AUCTION.get());
+            } else {
+                sender.sendMessage("§aAuction successfully cancelled.");
+            }
+            return;
+        }
+
+        if (args[1].equalsIgnoreCase("all")) {
+            int cancelled = auctionManager.cancelAllAuctions();
+            sender.sendMessage("§aCancelled " + cancelled + " auction(s).");
+            return;
+        }
+
+        int auctionId;
+        try {
+            auctionId = Integer.parseInt(args[1].startsWith("#") ? args[1].substring(1) : args[1]);
+        } catch (NumberFormatException e) {
+            sendUsage(sender);
+            return;
+        }
+
+        if (!auctionManager.cancelAuction(auctionId)) {
+            sender.sendMessage(MessageEnum.AUCTION_NOT_FOUND.get("id", auctionId));
         } else {
-            sender.sendMessage("§aAuction successfully cancelled.");
+            sender.sendMessage("§aAuction #" + auctionId + " successfully cancelled.");
         }
     }
 
@@ -139,11 +215,250 @@ public class GlobalAuctionCommand implements CommandExecutor {
         sender.sendMessage("§a" + MessageEnum.RELOAD_SUCCESS.get());
     }
 
+    private void handleStatus(CommandSender sender) {
+        AuctionManager auctionManager = plugin.getAuctionManager();
+        sender.sendMessage(MessageUtil.colorize("&6&lBeeAuction Status:"));
+        int maxAuctions = auctionManager.getMaxConcurrentAuctions();
+        sender.sendMessage(MessageUtil.colorize(" &eActive auctions: &f" + auctionManager.getActiveAuctionCount()
+                + "&7/&f" + (maxAuctions > 0 ? maxAuctions : "unlimited")));
+        WriteBehindDatabaseManager writeBehind = ForwardingDatabaseManager.unwrap(plugin.getDatabaseManager(), WriteBehindDatabaseManager.class);
+        if (writeBehind != null) {
+            sender.sendMessage(MessageUtil.colorize(" &eWrite queue depth: &f" + writeBehind.getQueueDepth()));
+            sender.sendMessage(MessageUtil.colorize(String.format(" &eFlush latency: &f%.2fms &7(avg %.2fms over %d flushes, %d writes)",
+                    writeBehind.getLastFlushMillis(), writeBehind.getAverageFlushMillis(),
+                    writeBehind.getFlushCount(), writeBehind.getFlushedWrites())));
+        } else {
+            sender.sendMessage(MessageUtil.colorize(" &eWrite-behind: &fdisabled"));
+        }
+        PendingRewardIndexDatabaseManager rewardIndex = ForwardingDatabaseManager.unwrap(plugin.getDatabaseManager(), PendingRewardIndexDatabaseManager.class);
+        if (rewardIndex != null) {
+            sender.sendMessage(MessageUtil.colorize(" &ePending reward index: &f" + rewardIndex.getType()
+                    + (rewardIndex.isLoaded() ? "" : " &c(loading)") + " &7(" + rewardIndex.getIndexedCount() + " players, "
+                    + rewardIndex.getAnsweredFromMemory() + " answered in memory, " + rewardIndex.getConfirmedByDatabase() + " checked in database)"));
+        }
+        RetentionJob retentionJob = plugin.getRetentionJob();
+        sender.sendMessage(MessageUtil.colorize(" &eRetention: &f" + (retentionJob == null ? "disabled" : "last run " + retentionJob.getLastRun())));
+        for (MonitoredExecutor executor : plugin.getDatabaseManager().getExecutors()) {
+            sender.sendMessage(MessageUtil.colorize(" &e" + executor.describe()));
+        }
+        sender.sendMessage(MessageUtil.colorize(" &e" + plugin.getEconomyManager().getExecutor().describe()));
+        sender.sendMessage(MessageUtil.colorize(" &e" + plugin.getIoExecutor().describe()));
+    }
+
+    private void handleRebuildStats(CommandSender sender, String label, String[] args) {
+        RetentionJob retention = plugin.getRetentionJob();
+        boolean confirmed = args.length > 1 && args[1].equalsIgnoreCase("confirm");
+        if (retention != null && retention.discardsHistory() && !confirmed) {
+            // Summarized or deleted rows cannot be counted again, so a rebuild would drop them from the totals.
+            sender.sendMessage(MessageUtil.colorize("&cRetention " + retention.getHistoryMode().pastTense()
+                    + " history older than " + retention.getHistoryDays() + " days. A rebuild only counts the history that is left,"
+                    + " so those wins and spend would disappear from player statistics and leaderboards."));
+            sender.sendMessage(MessageUtil.colorize("&eRun &f/" + label + " " + args[0] + " confirm&e to rebuild anyway."));
+            return;
+        }
+        sender.sendMessage(MessageUtil.colorize("&eRebuilding player statistics from auction history..."));
+        plugin.getDatabaseManager().rebuildPlayerStats().whenComplete((players, error) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Failed to rebuild player statistics", error);
+                        sender.sendMessage(MessageUtil.colorize("&cRebuilding player statistics failed, see the console."));
+                        return;
+                    }
+                    plugin.getPlayerStatsCache().clear();
+                    plugin.getLeaderboardService().reload();
+                    sender.sendMessage(MessageUtil.colorize("&aRebuilt statistics for &f" + players + "&a player(s)."));
+                }));
+    }
+
+    /**
+     * /auction history [player:<name>] [type:<item|command>] [days:<n>] [after:<cursor>]
+     */
+    private void handleHistory(CommandSender sender, String label, String[] args) {
+        HistoryQuery query = HistoryQuery.firstPage(plugin.getConfigManager().getHistoryPageSize()).withoutReward();
+        StringBuilder filters = new StringBuilder();
+        for (int i = 1; i < args.length; i++) {
+            int colon = args[i].indexOf(':');
+            String key = colon > 0 ? args[i].substring(0, colon).toLowerCase() : "";
+            String value = colon > 0 ? args[i].substring(colon + 1) : "";
+            switch (key) {
+                case "player" -> {
+                    OfflinePlayer target = Bukkit.getOfflinePlayerIfCached(value);
+                    if (target == null) {
+                        sender.sendMessage(MessageUtil.colorize("&cUnknown player: " + value));
+                        return;
+                    }
+                    query = query.forPlayer(target.getUniqueId());
+                }
+                case "type" -> {
+                    try {
+                        query = query.withType(AuctionType.valueOf(value.toUpperCase()).name());
+                    } catch (IllegalArgumentException e) {
+                        sender.sendMessage(MessageUtil.colorize("&cUnknown auction type: " + value));
+                        return;
+                    }
+                }
+                case "days" -> {
+                    try {
+                        long days = Long.parseLong(value);
+                        query = query.between(new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days)), null);
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(MessageUtil.colorize("&cInvalid number of days: " + value));
+                        return;
+                    }
+                }
+                case "after" -> {
+                    HistoryCursor cursor = HistoryCursor.decode(value);
+                    if (cursor == null) {
+                        sender.sendMessage(MessageUtil.colorize("&cInvalid page cursor: " + value));
+                        return;
+                    }
+                    query = query.after(cursor);
+                    continue;
+                }
+                default -> {
+                    sendUsage(sender);
+                    return;
+                }
+            }
+            filters.append(' ').append(args[i]);
+        }
+
+        String nextCommand = "/" + label + " " + args[0] + filters + " after:";
+        plugin.getDatabaseManager().queryHistory(query).whenComplete((page, error) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Failed to query auction history", error);
+                        sender.sendMessage(MessageUtil.colorize("&cLoading auction history failed, see the console."));
+                        return;
+                    }
+                    if (page.entries().isEmpty()) {
+                        sender.sendMessage(MessageUtil.colorize("&7No auction history found."));
+                        return;
+                    }
+                    sender.sendMessage(MessageUtil.colorize("&6&lAuction History:"));
+                    for (AuctionHistoryEntry entry : page.entries()) {
+                        sender.sendMessage(MessageEnum.HISTORY_ENTRY.get(
+                                "id", entry.getId(),
+                                "time", HISTORY_TIME.format(entry.getTimestamp().toInstant()),
+                                "player", entry.getPlayerName(),
+                                "amount", MessageUtil.formatPrice(entry.getAmount()),
+                                "type", entry.getAuctionType().toLowerCase()));
+                    }
+                    if (page.hasNext()) {
+                        sender.sendMessage(MessageUtil.colorize("&7Next page: &f" + nextCommand + page.next().encode()));
+                    }
+                }));
+    }
+
+    /**
+     * /auction export [csv|jsonl] [rewards]
+     */
+    private void handleExport(CommandSender sender, String[] args) {
+        HistoryExportJob.Format format = args.length >= 2 ? HistoryExportJob.Format.parse(args[1]) : HistoryExportJob.Format.CSV;
+        if (format == null) {
+            sendUsage(sender);
+            return;
+        }
+        boolean includeRewards = args.length >= 3 && args[2].equalsIgnoreCase("rewards");
+
+        CompletableFuture<HistoryExportJob.Result> export = plugin.getHistoryExportJob().export(format, includeRewards,
+                message -> Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(MessageUtil.colorize("&7" + message))));
+        if (export == null) {
+            sender.sendMessage(MessageUtil.colorize("&cAn export is already running."));
+            return;
+        }
+        sender.sendMessage(MessageUtil.colorize("&eExporting auction history..."));
+        export.whenComplete((result, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.SEVERE, "Auction history export failed", error);
+                sender.sendMessage(MessageUtil.colorize("&cThe export failed, see the console."));
+                return;
+            }
+            sender.sendMessage(MessageUtil.colorize(String.format("&aExported &f%,d&a history row(s) to &f%s&a in %.1fs.",
+                    result.historyRows(), result.historyFile().getFileName(), result.elapsedMillis() / 1000.0)));
+            if (result.rewardsFile() != null) {
+                sender.sendMessage(MessageUtil.colorize(String.format("&aExported &f%,d&a pending reward(s) to &f%s&a.",
+                        result.rewardRows(), result.rewardsFile().getFileName())));
+            }
+        }));
+    }
+
+    /**
+     * /auction ledger <auction id|player> [before:<seq>]
+     */
+    private void handleLedger(CommandSender sender, String label, String[] args) {
+        if (args.length < 2 || (args.length >= 3 && !args[2].toLowerCase().startsWith("before:"))) {
+            sendUsage(sender);
+            return;
+        }
+        if (!plugin.getBidLedger().isEnabled()) {
+            sender.sendMessage(MessageUtil.colorize("&cThe bid ledger is disabled."));
+            return;
+        }
+
+        int pageSize = plugin.getConfigManager().getHistoryPageSize();
+        String target = args[1].startsWith("#") ? args[1].substring(1) : args[1];
+        LedgerQuery query;
+        try {
+            query = LedgerQuery.forAuction(Integer.parseInt(target), pageSize);
+        } catch (NumberFormatException e) {
+            OfflinePlayer player = Bukkit.getOfflinePlayerIfCached(target);
+            if (player == null) {
+                sender.sendMessage(MessageUtil.colorize("&cUnknown auction or player: " + args[1]));
+                return;
+            }
+            query = LedgerQuery.forPlayer(player.getUniqueId(), pageSize);
+        }
+        if (args.length >= 3) {
+            try {
+                query = query.before(Long.parseLong(args[2].substring("before:".length())));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(MessageUtil.colorize("&cInvalid sequence number: " + args[2]));
+                return;
+            }
+        }
+
+        int limit = query.limit();
+        String nextCommand = "/" + label + " " + args[0] + " " + args[1] + " before:";
+        plugin.getBidLedger().query(query).whenComplete((entries, error) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Failed to query the bid ledger", error);
+                        sender.sendMessage(MessageUtil.colorize("&cLoading the bid ledger failed, see the console."));
+                        return;
+                    }
+                    if (entries.isEmpty()) {
+                        sender.sendMessage(MessageUtil.colorize("&7No ledger entries found."));
+                        return;
+                    }
+                    sender.sendMessage(MessageUtil.colorize("&6&lBid Ledger:"));
+                    for (LedgerEntry entry : entries) {
+                        boolean failed = entry.type() == LedgerEntryType.REFUND_FAILED || entry.type() == LedgerEntryType.PAYOUT_FAILED;
+                        sender.sendMessage((failed ? MessageEnum.LEDGER_ENTRY_FAILED : MessageEnum.LEDGER_ENTRY).get(
+                                "seq", entry.seq(),
+                                "time", entry.timestamp() != null ? HISTORY_TIME.format(entry.timestamp().toInstant()) : "-",
+                                "id", entry.auctionId(),
+                                "type", entry.type().name().toLowerCase(),
+                                "player", entry.playerName(),
+                                "amount", MessageUtil.formatPrice(entry.amount()),
+                                "note", entry.note() != null ? MessageEnum.LEDGER_NOTE.get("note", entry.note()) : ""));
+                    }
+                    if (entries.size() == limit) {
+                        sender.sendMessage(MessageUtil.colorize("&7Older entries: &f" + nextCommand + entries.get(entries.size() - 1).seq()));
+                    }
+                }));
+    }
+
     private void sendUsage(CommandSender sender) {
         String adminCmd = plugin.getConfigManager().getAdminCommandName();
         String startCmd = plugin.getConfigManager().getAdminSubcommandStart();
         String cancelCmd = plugin.getConfigManager().getAdminSubcommandCancel();
         String reloadCmd = plugin.getConfigManager().getAdminSubcommandReload();
+        String statusCmd = plugin.getConfigManager().getAdminSubcommandStatus();
+        String rebuildStatsCmd = plugin.getConfigManager().getAdminSubcommandRebuildStats();
+        String historyCmd = plugin.getConfigManager().getAdminSubcommandHistory();
+        String exportCmd = plugin.getConfigManager().getAdminSubcommandExport();
+        String ledgerCmd = plugin.getConfigManager().getAdminSubcommandLedger();
         String itemType = plugin.getConfigManager().getAdminAuctionTypeItem();
         String commandType = plugin.getConfigManager().getAdminAuctionTypeCommand();
 
@@ -152,9 +467,19 @@ public class GlobalAuctionCommand implements CommandExecutor {
         sender.sendMessage(MessageUtil.colorize("   &7- Starts an auction for the item in your hand."));
         sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + startCmd + " " + commandType + " <time> <start_price> <command>"));
         sender.sendMessage(MessageUtil.colorize("   &7- Starts an auction for a command."));
-        sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + cancelCmd));
-        sender.sendMessage(MessageUtil.colorize("   &7- Cancels the active auction."));
+        sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + cancelCmd + " [id|all]"));
+        sender.sendMessage(MessageUtil.colorize("   &7- Cancels an active auction, or all of them."));
         sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + reloadCmd));
         sender.sendMessage(MessageUtil.colorize("   &7- Reloads the plugin's configuration files."));
+        sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + statusCmd));
+        sender.sendMessage(MessageUtil.colorize("   &7- Shows running auctions, database write queue and thread pool statistics."));
+        sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + rebuildStatsCmd + " [confirm]"));
+        sender.sendMessage(MessageUtil.colorize("   &7- Recomputes per-player statistics from the auction history."));
+        sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + historyCmd + " [player:<name>] [type:<type>] [days:<n>]"));
+        sender.sendMessage(MessageUtil.colorize("   &7- Browses past auction results, newest first."));
+        sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + exportCmd + " [csv|jsonl] [rewards]"));
+        sender.sendMessage(MessageUtil.colorize("   &7- Writes the auction history (and pending rewards) to the exports folder."));
+        sender.sendMessage(MessageUtil.colorize(" &e/" + adminCmd + " " + ledgerCmd + " <auction id|player>"));
+        sender.sendMessage(MessageUtil.colorize("   &7- Lists the bids, refunds and payouts of an auction or player, newest first."));
     }
 }
@@ -1,10 +1,13 @@
 package org.djtmk.beeauction.commands;
 
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
 import org.bukkit.util.StringUtil;
 import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.auctions.Auction;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -25,7 +28,12 @@ public class GlobalAuctionTabCompleter implements TabCompleter {
         String startCmd = plugin.getConfigManager().getAdminSubcommandStart();
         String cancelCmd = plugin.getConfigManager().getAdminSubcommandCancel();
         String reloadCmd = plugin.getConfigManager().getAdminSubcommandReload();
-        this.subcommands = Arrays.asList(startCmd, cancelCmd, reloadCmd);
+        String statusCmd = plugin.getConfigManager().getAdminSubcommandStatus();
+        String rebuildStatsCmd = plugin.getConfigManager().getAdminSubcommandRebuildStats();
+        String historyCmd = plugin.getConfigManager().getAdminSubcommandHistory();
+        String exportCmd = plugin.getConfigManager().getAdminSubcommandExport();
+        String ledgerCmd = plugin.getConfigManager().getAdminSubcommandLedger();
+        this.subcommands = Arrays.asList(startCmd, cancelCmd, reloadCmd, statusCmd, rebuildStatsCmd, historyCmd, exportCmd, ledgerCmd);
 
         String itemType = plugin.getConfigManager().getAdminAuctionTypeItem();
         String commandType = plugin.getConfigManager().getAdminAuctionTypeCommand();
@@ -40,10 +48,36 @@ public class GlobalAuctionTabCompleter implements TabCompleter {
 
         final List<String> completions = new ArrayList<>();
         final String startCmd = plugin.getConfigManager().getAdminSubcommandStart();
+        final String cancelCmd = plugin.getConfigManager().getAdminSubcommandCancel();
         final String commandType = plugin.getConfigManager().getAdminAuctionTypeCommand();
+        final String historyCmd = plugin.getConfigManager().getAdminSubcommandHistory();
+        final String exportCmd = plugin.getConfigManager().getAdminSubcommandExport();
+        final String ledgerCmd = plugin.getConfigManager().getAdminSubcommandLedger();
 
         if (args.length == 1) {
             StringUtil.copyPartialMatches(args[0], subcommands, completions);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase(cancelCmd)) {
+            List<String> ids = new ArrayList<>();
+            ids.add("all");
+            for (Auction auction : plugin.getAuctionManager().getActiveAuctions()) {
+                ids.add(String.valueOf(auction.getId()));
+            }
+            StringUtil.copyPartialMatches(args[1], ids, completions);
+        } else if (args.length >= 2 && args[0].equalsIgnoreCase(historyCmd)) {
+            StringUtil.copyPartialMatches(args[args.length - 1], Arrays.asList("player:", "type:item", "type:command", "days:7", "days:30"), completions);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase(ledgerCmd)) {
+            List<String> targets = new ArrayList<>();
+            for (Auction auction : plugin.getAuctionManager().getActiveAuctions()) {
+                targets.add(String.valueOf(auction.getId()));
+            }
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                targets.add(player.getName());
+            }
+            StringUtil.copyPartialMatches(args[1], targets, completions);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase(exportCmd)) {
+            StringUtil.copyPartialMatches(args[1], Arrays.asList("csv", "jsonl"), completions);
+        } else if (args.length == 3 && args[0].equalsIgnoreCase(exportCmd)) {
+            StringUtil.copyPartialMatches(args[2], Collections.singletonList("rewards"), completions);
         } else if (args.length == 2 && args[0].equalsIgnoreCase(startCmd)) {
             StringUtil.copyPartialMatches(args[1], auctionTypes, completions);
         } else if (args.length == 3 && args[0].equalsIgnoreCase(startCmd)) {
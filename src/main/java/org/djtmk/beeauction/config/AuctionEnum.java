@@ -8,7 +8,8 @@ public class AuctionEnum {
     }
 
     public enum StorageType {
-        SQLITE
+        SQLITE,
+        MYSQL
     }
 
     public enum Day {
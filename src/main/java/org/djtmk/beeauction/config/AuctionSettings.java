@@ -0,0 +1,27 @@
+package org.djtmk.beeauction.config;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Typed auction rules from config.yml, read once per load or reload. Bids and payouts take one
+ * snapshot and use it throughout, so a reload never mixes old and new values in a single bid.
+ *
+ * @param maxConcurrentAuctions 0 for no limit
+ * @param bidBroadcastWindowMillis 0 to announce every bid on its own
+ */
+public record AuctionSettings(int bidTimeExtension, int bidTimeThreshold, double minBidIncrement,
+                              double salesTaxRate, double maxBidAmount, int maxConcurrentAuctions,
+                              long bidBroadcastWindowMillis) {
+
+    static AuctionSettings load(FileConfiguration config) {
+        return new AuctionSettings(
+                config.getInt("auction.bid-time-extension", 30),
+                config.getInt("auction.bid-time-threshold", 60),
+                config.getDouble("auction.min-bid-increment", 1.0),
+                config.getDouble("auction.sales-tax-rate", 0.0),
+                config.getDouble("auction.max-bid-amount", 1_000_000_000.0),
+                config.getInt("auction.max-concurrent-auctions", 10),
+                Math.max(0L, config.getLong("auction.bid-broadcast.window-ms", 1000))
+        );
+    }
+}
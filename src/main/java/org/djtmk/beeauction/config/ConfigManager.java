@@ -3,14 +3,15 @@ package org.djtmk.beeauction.config;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.djtmk.beeauction.BeeAuction;
-import org.djtmk.beeauction.util.MessageUtil;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 public class ConfigManager {
@@ -21,6 +22,9 @@ public class ConfigManager {
     private File messagesFile;
     private final ConfigMigrator migrator;
     private final ConfigValidator validator;
+    private volatile PlaceholderMessages placeholderMessages;
+    private volatile AuctionSettings auctionSettings;
+    private volatile Map<String, MessageTemplate> messageTemplates = Map.of();
 
     private static ConfigManager instance;
 
@@ -57,6 +61,9 @@ public class ConfigManager {
         messagesConfig = YamlConfiguration.loadConfiguration(messagesFile);
 
         matchConfigWithDefaults();
+        auctionSettings = AuctionSettings.load(config);
+        messageTemplates = compileMessages();
+        placeholderMessages = PlaceholderMessages.load();
         return true;
     }
 
@@ -64,6 +71,20 @@ public class ConfigManager {
         config = YamlConfiguration.loadConfiguration(configFile);
         messagesConfig = YamlConfiguration.loadConfiguration(messagesFile);
         matchConfigWithDefaults();
+        auctionSettings = AuctionSettings.load(config);
+        messageTemplates = compileMessages();
+        placeholderMessages = PlaceholderMessages.load();
+    }
+
+    private Map<String, MessageTemplate> compileMessages() {
+        String prefix = messagesConfig.getString("prefix", "");
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        for (String key : messagesConfig.getKeys(true)) {
+            if (messagesConfig.isString(key)) {
+                templates.put(key, MessageTemplate.compile(messagesConfig.getString(key), prefix));
+            }
+        }
+        return Map.copyOf(templates);
     }
 
     private void matchConfigWithDefaults() {
@@ -104,37 +125,29 @@ public class ConfigManager {
         }
     }
 
+    /**
+     * @param key a messages.yml key, or a {@link MessageEnum} name
+     */
     public static String getMessage(String key) {
-        if (instance == null || instance.messagesConfig == null) {
-            return "§cMessage not found: " + key;
-        }
-
-        String message = instance.messagesConfig.getString(key.toLowerCase().replace('_', '-'));
-        if (message == null) {
-            return "§cMessage not found: " + key;
-        }
-
-        // Replace {prefix} placeholder with actual prefix
-        String prefix = instance.messagesConfig.getString("prefix", "");
-        message = message.replace("{prefix}", prefix);
-
-        return MessageUtil.colorize(message);
+        MessageTemplate template = getTemplate(toMessageKey(key));
+        return template != null ? template.render() : missingMessage(key);
     }
 
     public static String getMessage(String key, Object... placeholders) {
-        String message = getMessage(key);
+        MessageTemplate template = getTemplate(toMessageKey(key));
+        return template != null ? template.render(placeholders) : missingMessage(key);
+    }
 
-        if (placeholders.length % 2 != 0) {
-            return message;
-        }
+    static MessageTemplate getTemplate(String messageKey) {
+        return instance == null ? null : instance.messageTemplates.get(messageKey);
+    }
 
-        for (int i = 0; i < placeholders.length; i += 2) {
-            String placeholder = String.valueOf(placeholders[i]);
-            String value = String.valueOf(placeholders[i + 1]);
-            message = message.replace("{" + placeholder + "}", value);
-        }
+    static String toMessageKey(String key) {
+        return key.toLowerCase().replace('_', '-');
+    }
 
-        return message;
+    static String missingMessage(String key) {
+        return "§cMessage not found: " + key;
     }
 
     public boolean isScheduleEnabled() {
@@ -155,6 +168,24 @@ public class ConfigManager {
     public String getAdminSubcommandReload() {
         return config.getString("commands.admin.subcommands.reload", "reload");
     }
+    public String getAdminSubcommandStatus() {
+        return config.getString("commands.admin.subcommands.status", "status");
+    }
+    public String getAdminSubcommandRebuildStats() {
+        return config.getString("commands.admin.subcommands.rebuildstats", "rebuildstats");
+    }
+    public String getAdminSubcommandHistory() {
+        return config.getString("commands.admin.subcommands.history", "history");
+    }
+    public String getAdminSubcommandExport() {
+        return config.getString("commands.admin.subcommands.export", "export");
+    }
+    public String getAdminSubcommandLedger() {
+        return config.getString("commands.admin.subcommands.ledger", "ledger");
+    }
+    public int getHistoryPageSize() {
+        return config.getInt("commands.admin.history-page-size", 10);
+    }
     public String getAdminAuctionTypeItem() {
         return config.getString("commands.admin.auction-types.item", "item");
     }
@@ -174,4 +205,10 @@ public class ConfigManager {
     public FileConfiguration getMessagesConfig() {
         return messagesConfig;
     }
+    public AuctionSettings getAuctionSettings() {
+        return auctionSettings;
+    }
+    public PlaceholderMessages getPlaceholderMessages() {
+        return placeholderMessages;
+    }
 }
@@ -1,9 +1,12 @@
 package org.djtmk.beeauction.config;
 
+import net.kyori.adventure.text.Component;
+
 public enum MessageEnum {
 
     AUCTION_STARTED,
     NEW_BID,
+    NEW_BID_SUMMARY,
     OUTBID,
     WIN,
     WIN_MESSAGE,
@@ -16,6 +19,15 @@ public enum MessageEnum {
     INVALID_AMOUNT,
     NOT_ENOUGH_MONEY,
     AUCTION_ALREADY_ACTIVE,
+    AUCTION_LIMIT_REACHED,
+    AUCTION_NOT_FOUND,
+    AUCTION_ID_REQUIRED,
+    AUCTION_LIST_HEADER,
+    AUCTION_LIST_ENTRY,
+    HISTORY_ENTRY,
+    LEDGER_ENTRY,
+    LEDGER_ENTRY_FAILED,
+    LEDGER_NOTE,
     INVALID_COMMAND,
     RELOAD_SUCCESS,
     AUCTION_NAME_QUESTION,
@@ -23,12 +35,29 @@ public enum MessageEnum {
     CLAIM_SUCCESS,
     CLAIM_FAIL,
     CLAIM_INVENTORY_FULL,
-    CLAIM_JOIN_NOTIFICATION;
+    CLAIM_JOIN_NOTIFICATION,
+    AUCTION_BAR_SHOWN,
+    AUCTION_BAR_HIDDEN,
+    BID_ALERTS_SET,
+    BID_ALERTS_CURRENT,
+    BID_ALERTS_USAGE;
+
+    private final String key = ConfigManager.toMessageKey(name());
 
     public String get() {
-        return ConfigManager.getMessage(this.name());
+        MessageTemplate template = ConfigManager.getTemplate(key);
+        return template != null ? template.render() : ConfigManager.missingMessage(name());
     }
     public String get(Object... placeholders) {
-        return ConfigManager.getMessage(this.name(), placeholders);
+        MessageTemplate template = ConfigManager.getTemplate(key);
+        return template != null ? template.render(placeholders) : ConfigManager.missingMessage(name());
+    }
+    public Component component() {
+        MessageTemplate template = ConfigManager.getTemplate(key);
+        return template != null ? template.component() : Component.text(ConfigManager.missingMessage(name()));
+    }
+    public Component component(Object... placeholders) {
+        MessageTemplate template = ConfigManager.getTemplate(key);
+        return template != null ? template.component(placeholders) : Component.text(ConfigManager.missingMessage(name()));
     }
 }
@@ -0,0 +1,111 @@
+package org.djtmk.beeauction.config;
+
+import net.kyori.adventure.text.Component;
+import org.djtmk.beeauction.util.MessageUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message from messages.yml, parsed once per load or reload. The prefix and color codes
+ * are resolved up front and the text is split into literal parts and {placeholder} slots, so
+ * rendering is a single append pass instead of a colorize plus one replace per placeholder.
+ * The {@link Component} form is built once per event, so a broadcast is serialized once and
+ * not re-parsed for every recipient; messages without placeholders keep a cached component.
+ */
+public final class MessageTemplate {
+    // Rendering reuses one builder per thread; builders that grew past this are not kept.
+    private static final int MAX_CACHED_CAPACITY = 1024;
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String text;
+    // Literal text at even indexes, placeholder names at odd indexes.
+    private final String[] segments;
+    private final Component component;
+
+    private MessageTemplate(String text, String[] segments) {
+        this.text = text;
+        this.segments = segments;
+        this.component = MessageUtil.toComponent(text);
+    }
+
+    static MessageTemplate compile(String raw, String prefix) {
+        String text = MessageUtil.colorize(raw.replace("{prefix}", prefix));
+        List<String> segments = new ArrayList<>();
+        int literalStart = 0;
+        int open = text.indexOf('{');
+        while (open >= 0) {
+            int close = text.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            int nested = text.indexOf('{', open + 1);
+            if (nested >= 0 && nested < close) {
+                open = nested;
+                continue;
+            }
+            segments.add(text.substring(literalStart, open));
+            segments.add(text.substring(open + 1, close));
+            literalStart = close + 1;
+            open = text.indexOf('{', literalStart);
+        }
+        segments.add(text.substring(literalStart));
+        return new MessageTemplate(text, segments.toArray(new String[0]));
+    }
+
+    /**
+     * @return the message with no placeholders filled in
+     */
+    public String render() {
+        return text;
+    }
+
+    /**
+     * Fills in placeholders given as name/value pairs. Placeholders without a value are left
+     * as written, and an odd number of arguments leaves the message untouched.
+     */
+    public String render(Object... placeholders) {
+        if (segments.length == 1 || placeholders.length == 0 || placeholders.length % 2 != 0) {
+            return text;
+        }
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        builder.append(segments[0]);
+        for (int i = 1; i < segments.length; i += 2) {
+            String name = segments[i];
+            Object value = lookup(name, placeholders);
+            if (value != null) {
+                builder.append(value);
+            } else {
+                builder.append('{').append(name).append('}');
+            }
+            builder.append(segments[i + 1]);
+        }
+        String rendered = builder.toString();
+        if (builder.capacity() > MAX_CACHED_CAPACITY) {
+            BUILDER.remove();
+        }
+        return rendered;
+    }
+
+    public Component component() {
+        return component;
+    }
+
+    public Component component(Object... placeholders) {
+        if (segments.length == 1 || placeholders.length == 0 || placeholders.length % 2 != 0) {
+            return component;
+        }
+        return MessageUtil.toComponent(render(placeholders));
+    }
+
+    private static Object lookup(String name, Object[] placeholders) {
+        for (int i = 0; i < placeholders.length; i += 2) {
+            if (name.equals(String.valueOf(placeholders[i]))) {
+                // Keeps the old String.valueOf behaviour, so a null value renders as "null".
+                return placeholders[i + 1] == null ? "null" : placeholders[i + 1];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package org.djtmk.beeauction.config;
+
+/**
+ * Placeholder fallback texts from messages.yml, resolved once per load or reload so
+ * placeholder requests never read YAML.
+ */
+public record PlaceholderMessages(String activeTrue, String activeFalse, String noAuctionItem,
+                                  String noAuctionBid, String noAuctionBidder, String noAuctionTime,
+                                  String leaderboardEmpty) {
+
+    static PlaceholderMessages load() {
+        return new PlaceholderMessages(
+                ConfigManager.getMessage("placeholders.active-true"),
+                ConfigManager.getMessage("placeholders.active-false"),
+                ConfigManager.getMessage("placeholders.no-auction-item"),
+                ConfigManager.getMessage("placeholders.no-auction-bid"),
+                ConfigManager.getMessage("placeholders.no-auction-bidder"),
+                ConfigManager.getMessage("placeholders.no-auction-time"),
+                ConfigManager.getMessage("placeholders.leaderboard-empty")
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package org.djtmk.beeauction.data;
+
+import java.util.UUID;
+
+/**
+ * A finished auction waiting to be written to auction_history.
+ */
+public record AuctionResultRecord(String playerName, UUID playerUuid, double amount, String auctionType, String reward) {
+}
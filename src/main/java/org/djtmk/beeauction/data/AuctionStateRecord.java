@@ -0,0 +1,29 @@
+package org.djtmk.beeauction.data;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.UUID;
+
+/**
+ * A live auction as stored in the auctions table: what is being sold, by whom, and the bid
+ * state at the time it was written. {@code item} is null for command auctions, and for item
+ * auctions whose stored item could not be decoded.
+ *
+ * @param bidSequence number of committed bids, used to keep only the newest state of an auction
+ */
+public record AuctionStateRecord(int id, String auctionType, AuctionStatus status, ItemStack item, String command,
+                                 String commandDisplayName, String customName, double startPrice, int duration,
+                                 String ownerName, UUID ownerUuid, double currentBid, UUID bidderUuid, String bidderName,
+                                 long endTime, long bidSequence) {
+
+    /**
+     * @return true if this record should replace {@code other} for the same auction
+     */
+    public boolean supersedes(AuctionStateRecord other) {
+        if (other.status() == AuctionStatus.OPEN) {
+            return status != AuctionStatus.OPEN || bidSequence >= other.bidSequence();
+        }
+        // An ending auction only moves on to its final status.
+        return other.status() == AuctionStatus.ENDING && status != AuctionStatus.OPEN && status != AuctionStatus.ENDING;
+    }
+}
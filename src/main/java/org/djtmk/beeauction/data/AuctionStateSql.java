@@ -0,0 +1,138 @@
+package org.djtmk.beeauction.data;
+
+import org.bukkit.inventory.ItemStack;
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL for the auctions table, shared by both backends. Owner and bidder UUIDs are always stored
+ * as text: the table only holds a handful of open rows, so the compact layout would not pay
+ * for the extra conversion step.
+ */
+public final class AuctionStateSql {
+
+    private static final String COLUMNS = "id, auction_type, status, item_data, command, command_display_name, custom_name, " +
+            "start_price, duration, owner_name, owner_uuid, current_bid, bidder_uuid, bidder_name, end_time, bid_seq";
+
+    private static final String SELECT_OPEN = "SELECT " + COLUMNS + " FROM auctions WHERE status IN ('OPEN', 'ENDING') ORDER BY id";
+
+    // The ledger can be on while the journal is off, so ids it has seen count as well.
+    private static final String MAX_ID = "SELECT MAX(id) FROM (SELECT MAX(id) AS id FROM auctions " +
+            "UNION ALL SELECT MAX(auction_id) FROM bid_ledger) ids";
+
+    // The newest row is kept even when finished, so MAX_ID never goes back and ids are not reused.
+    private static final String DELETE_FINISHED = "DELETE FROM auctions WHERE status IN ('ENDED', 'CANCELLED') AND id < ?";
+
+    private AuctionStateSql() {
+    }
+
+    // The item, owner and start price never change after the first write, so only the state is updated.
+    private static String upsert(StorageType dialect) {
+        String insert = "INSERT INTO auctions(" + COLUMNS + ") VALUES(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+        if (dialect == StorageType.MYSQL) {
+            return insert + " ON DUPLICATE KEY UPDATE status = VALUES(status), current_bid = VALUES(current_bid), " +
+                    "bidder_uuid = VALUES(bidder_uuid), bidder_name = VALUES(bidder_name), end_time = VALUES(end_time), " +
+                    "bid_seq = VALUES(bid_seq), updated_at = CURRENT_TIMESTAMP";
+        }
+        return insert + " ON CONFLICT(id) DO UPDATE SET status = excluded.status, current_bid = excluded.current_bid, " +
+                "bidder_uuid = excluded.bidder_uuid, bidder_name = excluded.bidder_name, end_time = excluded.end_time, " +
+                "bid_seq = excluded.bid_seq, updated_at = CURRENT_TIMESTAMP";
+    }
+
+    /**
+     * Writes every record in one transaction. Auctions that reach a final status are deleted in
+     * the same transaction, so the table only holds the ones still running or being settled.
+     */
+    public static void save(Connection conn, StorageType dialect, ItemCodec itemCodec, List<AuctionStateRecord> states) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(upsert(dialect))) {
+            for (AuctionStateRecord state : states) {
+                pstmt.setInt(1, state.id());
+                pstmt.setString(2, state.auctionType());
+                pstmt.setString(3, state.status().name());
+                if (state.item() != null) {
+                    itemCodec.bind(pstmt, 4, state.item());
+                } else {
+                    pstmt.setNull(4, Types.BLOB);
+                }
+                pstmt.setString(5, state.command());
+                pstmt.setString(6, state.commandDisplayName());
+                pstmt.setString(7, state.customName());
+                pstmt.setDouble(8, state.startPrice());
+                pstmt.setInt(9, state.duration());
+                pstmt.setString(10, state.ownerName());
+                pstmt.setString(11, state.ownerUuid() != null ? state.ownerUuid().toString() : null);
+                pstmt.setDouble(12, state.currentBid());
+                pstmt.setString(13, state.bidderUuid() != null ? state.bidderUuid().toString() : null);
+                pstmt.setString(14, state.bidderName());
+                pstmt.setLong(15, state.endTime());
+                pstmt.setLong(16, state.bidSequence());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            if (states.stream().anyMatch(state -> state.status().isFinal())) {
+                deleteFinished(conn);
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void deleteFinished(Connection conn) throws SQLException {
+        int newest;
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM auctions")) {
+            newest = rs.next() ? rs.getInt(1) : 0;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE_FINISHED)) {
+            pstmt.setInt(1, newest);
+            pstmt.executeUpdate();
+        }
+    }
+
+    public static List<AuctionStateRecord> loadOpen(Connection conn) throws SQLException {
+        List<AuctionStateRecord> open = new ArrayList<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(SELECT_OPEN)) {
+            while (rs.next()) {
+                open.add(read(rs));
+            }
+        }
+        return open;
+    }
+
+    public static int maxId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(MAX_ID)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static AuctionStateRecord read(ResultSet rs) throws SQLException {
+        byte[] itemData = rs.getBytes("item_data");
+        ItemStack item = null;
+        if (itemData != null) {
+            try {
+                item = ItemCodec.decode(itemData);
+            } catch (IOException | RuntimeException e) {
+                // Left null; recovery reports the auction instead of failing the whole load.
+            }
+        }
+        return new AuctionStateRecord(rs.getInt("id"), rs.getString("auction_type"), AuctionStatus.valueOf(rs.getString("status")),
+                item, rs.getString("command"), rs.getString("command_display_name"), rs.getString("custom_name"),
+                rs.getDouble("start_price"), rs.getInt("duration"), rs.getString("owner_name"),
+                UuidCodec.TEXT.read(rs, "owner_uuid"), rs.getDouble("current_bid"), UuidCodec.TEXT.read(rs, "bidder_uuid"),
+                rs.getString("bidder_name"), rs.getLong("end_time"), rs.getLong("bid_seq"));
+    }
+}
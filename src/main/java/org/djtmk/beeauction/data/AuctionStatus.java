@@ -0,0 +1,23 @@
+package org.djtmk.beeauction.data;
+
+/**
+ * Lifecycle of a row in the auctions table. OPEN and ENDING auctions are picked up again on
+ * startup; ENDED and CANCELLED rows are deleted once written.
+ */
+public enum AuctionStatus {
+    /** Running, or interrupted before it was settled. */
+    OPEN,
+    /** Ended, but the item, winner and seller may not all have been handled yet. */
+    ENDING,
+    /** Ended and settled: the winner was paid out or the item went back to the seller. */
+    ENDED,
+    /** Cancelled and settled: the highest bid was refunded and the item returned. */
+    CANCELLED;
+
+    /**
+     * @return true once nothing is left to do for the auction; its row is then removed
+     */
+    public boolean isFinal() {
+        return this == ENDED || this == CANCELLED;
+    }
+}
@@ -4,24 +4,64 @@ import org.bukkit.inventory.ItemStack;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface DatabaseHandler {
 
     void initialize();
     void shutdown();
     Connection getConnection() throws SQLException;
+    Connection getReadConnection() throws SQLException;
 
     void createTables();
-    void saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward);
+    void saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward) throws SQLException;
 
     List<AuctionHistoryEntry> getAuctionHistory() throws SQLException;
-    void addPendingReward(UUID playerUuid, ItemStack item, String reason);
+
+    HistoryPage queryHistory(HistoryQuery query) throws SQLException;
+
+    long streamHistory(Consumer<AuctionHistoryEntry> consumer) throws SQLException;
+
+    long streamPendingRewardMeta(Consumer<PendingRewardMeta> consumer) throws SQLException;
+
+    int purgeHistory(Timestamp cutoff, RetentionMode mode, int limit) throws SQLException;
+
+    int archivePendingRewards(Timestamp cutoff, int limit) throws SQLException;
+
+    long compact(int pages) throws SQLException;
+
+    void saveAuctionStates(List<AuctionStateRecord> states) throws SQLException;
+
+    List<AuctionStateRecord> loadOpenAuctions() throws SQLException;
+
+    int getMaxAuctionId() throws SQLException;
+
+    void appendLedgerEntries(List<LedgerEntry> entries) throws SQLException;
+
+    List<LedgerEntry> queryLedger(LedgerQuery query) throws SQLException;
+
+    long getMaxLedgerSeq() throws SQLException;
+
+    void addPendingReward(UUID playerUuid, ItemStack item, String reason) throws SQLException;
+
+    void writeBatch(List<AuctionResultRecord> results, List<PendingRewardRecord> rewards) throws SQLException;
+
+    ItemReencodeBatch reencodeItems(long afterId, int limit) throws SQLException;
 
     List<ItemStack> getAndRemovePendingRewards(UUID playerUuid) throws SQLException;
 
     boolean hasPendingRewards(UUID playerUuid) throws SQLException;
 
+    int loadPendingRewardOwners(Consumer<UUID> consumer) throws SQLException;
+
     int getAuctionsWonCount(UUID playerUuid) throws SQLException;
+
+    PlayerStats getPlayerStats(UUID playerUuid) throws SQLException;
+
+    List<PlayerStats> getTopPlayerStats(LeaderboardType type, int limit) throws SQLException;
+
+    int rebuildPlayerStats() throws SQLException;
 }
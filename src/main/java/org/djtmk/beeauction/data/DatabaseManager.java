@@ -31,7 +31,11 @@ public class DatabaseManager {
 
     public void saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward) {
         if (databaseHandler != null) {
-            databaseHandler.saveAuctionResult(playerName, playerUuid, amount, auctionType, reward);
+            try {
+                databaseHandler.saveAuctionResult(playerName, playerUuid, amount, auctionType, reward);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to save auction result", e);
+            }
         }
     }
 
@@ -48,7 +52,11 @@ public class DatabaseManager {
 
     public void addPendingReward(UUID playerUuid, ItemStack item, String reason) {
         if (databaseHandler != null) {
-            databaseHandler.addPendingReward(playerUuid, item, reason);
+            try {
+                databaseHandler.addPendingReward(playerUuid, item, reason);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not add pending reward to database", e);
+            }
         }
     }
 
@@ -0,0 +1,34 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Full-table reads used by exports, shared by both backends. Both walk the primary key so the
+ * database can stream rows without sorting.
+ */
+public final class ExportSql {
+
+    // Rows the driver fetches per round trip where it honours a positive fetch size.
+    public static final int FETCH_SIZE = 1000;
+
+    public static final String HISTORY =
+            "SELECT id, player_name, player_uuid, amount, auction_type, reward, timestamp FROM auction_history ORDER BY id";
+
+    public static final String PENDING_REWARDS =
+            "SELECT id, player_uuid, reason, LENGTH(item_data) AS item_bytes, timestamp FROM pending_rewards ORDER BY id";
+
+    private ExportSql() {
+    }
+
+    public static AuctionHistoryEntry readHistory(ResultSet rs, UuidCodec uuidCodec, StorageType dialect) throws SQLException {
+        return HistoryQuerySql.read(rs, uuidCodec, dialect);
+    }
+
+    public static PendingRewardMeta readPendingReward(ResultSet rs, UuidCodec uuidCodec) throws SQLException {
+        return new PendingRewardMeta(rs.getLong("id"), uuidCodec.read(rs, "player_uuid"), rs.getString("reason"),
+                rs.getLong("item_bytes"), rs.getTimestamp("timestamp"));
+    }
+}
@@ -0,0 +1,37 @@
+package org.djtmk.beeauction.data;
+
+import java.sql.Timestamp;
+
+/**
+ * Position of the last row on a history page. The next page starts strictly after it in
+ * (timestamp, id) descending order, so each page is an index seek rather than an OFFSET scan.
+ */
+public record HistoryCursor(Timestamp timestamp, long id) {
+
+    public static HistoryCursor after(AuctionHistoryEntry entry) {
+        return new HistoryCursor(entry.getTimestamp(), entry.getId());
+    }
+
+    /**
+     * Short token for commands, e.g. {@code lq3k9x2o.1z4}.
+     */
+    public String encode() {
+        return Long.toString(timestamp.getTime(), 36) + "." + Long.toString(id, 36);
+    }
+
+    /**
+     * @return the decoded cursor, or null if the token is malformed
+     */
+    public static HistoryCursor decode(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            return new HistoryCursor(new Timestamp(Long.parseLong(token.substring(0, dot), 36)),
+                    Long.parseLong(token.substring(dot + 1), 36));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
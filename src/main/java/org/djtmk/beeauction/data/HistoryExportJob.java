@@ -0,0 +1,248 @@
+package org.djtmk.beeauction.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.djtmk.beeauction.BeeAuction;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Exports auction_history, and optionally pending reward metadata, to CSV or JSON Lines under
+ * plugins/BeeAuction/exports. Rows are streamed from the database straight into a buffered
+ * file channel, so memory use does not depend on the table size. Files are written under a
+ * .part name and renamed when complete. Only one export runs at a time.
+ */
+public class HistoryExportJob {
+
+    public enum Format {
+        CSV("csv"),
+        JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * @return the matching format, or null if the name is unknown
+         */
+        public static Format parse(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    public record Result(Path historyFile, long historyRows, Path rewardsFile, long rewardRows, long elapsedMillis) {
+    }
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 5000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Gson GSON = new Gson();
+    private static final String HISTORY_HEADER = "id,timestamp,player_uuid,player_name,amount,auction_type,reward";
+    private static final String REWARDS_HEADER = "id,timestamp,player_uuid,reason,item_bytes";
+
+    private final BeeAuction plugin;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopped;
+
+    public HistoryExportJob(BeeAuction plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Aborts a running export at the next row; its partial files are deleted.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Starts an export. {@code progress} receives status lines from database threads.
+     *
+     * @return the export result, or null if another export is already running
+     */
+    public CompletableFuture<Result> export(Format format, boolean includeRewards, Consumer<String> progress) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        long startedAt = System.currentTimeMillis();
+        String stamp = LocalDateTime.now().format(FILE_STAMP);
+        Path directory = new File(plugin.getDataFolder(), "exports").toPath();
+        Path historyFile = directory.resolve("auction-history-" + stamp + "." + format.extension);
+        Path rewardsFile = includeRewards ? directory.resolve("pending-rewards-" + stamp + "." + format.extension) : null;
+
+        stopped = false;
+        return open(historyFile, format, HISTORY_HEADER, "history", progress)
+                .thenCompose(writer -> writer.finish(plugin.getDatabaseManager().streamHistory(writer::writeHistory)))
+                .thenCompose(historyRows -> exportRewards(rewardsFile, format, progress)
+                        .thenApply(rewardRows -> new Result(historyFile, historyRows, rewardsFile, rewardRows,
+                                System.currentTimeMillis() - startedAt)))
+                .whenComplete((result, error) -> running.set(false));
+    }
+
+    private CompletableFuture<Long> exportRewards(Path rewardsFile, Format format, Consumer<String> progress) {
+        if (rewardsFile == null) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        return open(rewardsFile, format, REWARDS_HEADER, "pending reward", progress)
+                .thenCompose(writer -> writer.finish(plugin.getDatabaseManager().streamPendingRewardMeta(writer::writeReward)));
+    }
+
+    private CompletableFuture<RowWriter> open(Path target, Format format, String csvHeader, String label, Consumer<String> progress) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return new RowWriter(target, format, csvHeader, label, progress);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, plugin.getIoExecutor());
+    }
+
+    private final class RowWriter {
+        private final Path target;
+        private final Path partFile;
+        private final Format format;
+        private final Consumer<String> progress;
+        private final String label;
+        private final Writer out;
+        private long rows;
+        private long lastReportAt = System.currentTimeMillis();
+
+        RowWriter(Path target, Format format, String csvHeader, String label, Consumer<String> progress) throws IOException {
+            this.target = target;
+            this.partFile = target.resolveSibling(target.getFileName() + ".part");
+            this.format = format;
+            this.progress = progress;
+            this.label = label;
+            Files.createDirectories(target.getParent());
+            FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (format == Format.CSV) {
+                line(csvHeader);
+            }
+        }
+
+        /**
+         * Waits for the database stream to finish, then publishes the file or deletes it.
+         */
+        CompletableFuture<Long> finish(CompletableFuture<Long> rowsStreamed) {
+            return rowsStreamed.handle((count, error) -> {
+                try {
+                    out.close();
+                    if (error != null) {
+                        Files.deleteIfExists(partFile);
+                        throw error instanceof RuntimeException runtime ? runtime : new UncheckedIOException(new IOException(error));
+                    }
+                    try {
+                        Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        void writeHistory(AuctionHistoryEntry entry) {
+            if (format == Format.CSV) {
+                line(entry.getId() + "," + csv(isoTime(entry.getTimestamp())) + "," + entry.getPlayerUuid() + ","
+                        + csv(entry.getPlayerName()) + "," + entry.getAmount() + "," + csv(entry.getAuctionType()) + ","
+                        + csv(entry.getReward()));
+            } else {
+                JsonObject json = new JsonObject();
+                json.addProperty("id", entry.getId());
+                json.addProperty("timestamp", isoTime(entry.getTimestamp()));
+                json.addProperty("player_uuid", String.valueOf(entry.getPlayerUuid()));
+                json.addProperty("player_name", entry.getPlayerName());
+                json.addProperty("amount", entry.getAmount());
+                json.addProperty("auction_type", entry.getAuctionType());
+                json.addProperty("reward", entry.getReward());
+                line(GSON.toJson(json));
+            }
+            rowWritten();
+        }
+
+        void writeReward(PendingRewardMeta reward) {
+            if (format == Format.CSV) {
+                line(reward.id() + "," + csv(isoTime(reward.timestamp())) + "," + reward.playerUuid() + ","
+                        + csv(reward.reason()) + "," + reward.itemBytes());
+            } else {
+                JsonObject json = new JsonObject();
+                json.addProperty("id", reward.id());
+                json.addProperty("timestamp", isoTime(reward.timestamp()));
+                json.addProperty("player_uuid", String.valueOf(reward.playerUuid()));
+                json.addProperty("reason", reward.reason());
+                json.addProperty("item_bytes", reward.itemBytes());
+                line(GSON.toJson(json));
+            }
+            rowWritten();
+        }
+
+        private void rowWritten() {
+            rows++;
+            if (stopped) {
+                throw new CancellationException("Export stopped");
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastReportAt >= PROGRESS_INTERVAL_MILLIS) {
+                lastReportAt = now;
+                progress.accept(String.format(Locale.ROOT, "Exported %,d %s row(s) so far...", rows, label));
+            }
+        }
+
+        private void line(String text) {
+            try {
+                out.write(text);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static String isoTime(Timestamp timestamp) {
+        return timestamp == null ? "" : timestamp.toInstant().toString();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,13 @@
+package org.djtmk.beeauction.data;
+
+import java.util.List;
+
+/**
+ * One page of auction history, newest first. {@code next} is null on the last page.
+ */
+public record HistoryPage(List<AuctionHistoryEntry> entries, HistoryCursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,53 @@
+package org.djtmk.beeauction.data;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Filters and position for a page of auction history. Every filter is optional; start with
+ * {@link #firstPage(int)} and narrow it with the {@code with}/{@code for} methods.
+ *
+ * @param from inclusive lower bound on the result time
+ * @param to exclusive upper bound on the result time
+ * @param includeReward whether to load the reward text, usually the widest column
+ */
+public record HistoryQuery(UUID playerUuid, String auctionType, Timestamp from, Timestamp to,
+                           HistoryCursor after, int pageSize, boolean includeReward) {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public HistoryQuery {
+        pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, pageSize));
+    }
+
+    public static HistoryQuery firstPage(int pageSize) {
+        return new HistoryQuery(null, null, null, null, null, pageSize, true);
+    }
+
+    public HistoryQuery forPlayer(UUID playerUuid) {
+        return new HistoryQuery(playerUuid, auctionType, from, to, after, pageSize, includeReward);
+    }
+
+    public HistoryQuery withType(String auctionType) {
+        return new HistoryQuery(playerUuid, auctionType, from, to, after, pageSize, includeReward);
+    }
+
+    public HistoryQuery between(Timestamp from, Timestamp to) {
+        return new HistoryQuery(playerUuid, auctionType, from, to, after, pageSize, includeReward);
+    }
+
+    public HistoryQuery withoutReward() {
+        return new HistoryQuery(playerUuid, auctionType, from, to, after, pageSize, false);
+    }
+
+    public HistoryQuery after(HistoryCursor cursor) {
+        return new HistoryQuery(playerUuid, auctionType, from, to, cursor, pageSize, includeReward);
+    }
+
+    /**
+     * The query for the page following {@code page}, or null if it was the last one.
+     */
+    public HistoryQuery next(HistoryPage page) {
+        return page.hasNext() ? after(page.next()) : null;
+    }
+}
@@ -0,0 +1,128 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a {@link HistoryQuery} against auction_history, shared by both backends. Pages are read
+ * in (timestamp, id) descending order and continued with a seek predicate, which the
+ * idx_history_time and idx_history_player_time indexes answer without scanning skipped rows.
+ */
+public final class HistoryQuerySql {
+
+    // SQLite stores CURRENT_TIMESTAMP as UTC text, so timestamps are read and bound in that form.
+    // The driver would parse the text in the JVM's zone and shift cursors on non-UTC servers.
+    private static final DateTimeFormatter SQLITE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter SQLITE_TIMESTAMP_READ = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSS]");
+
+    private HistoryQuerySql() {
+    }
+
+    public static HistoryPage execute(Connection conn, HistoryQuery query, UuidCodec uuidCodec, StorageType dialect) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT id, player_name, player_uuid, amount, auction_type, ")
+                .append(query.includeReward() ? "reward" : "NULL AS reward")
+                .append(", timestamp FROM auction_history WHERE 1=1");
+        if (query.playerUuid() != null) {
+            sql.append(" AND player_uuid = ?");
+        }
+        if (query.auctionType() != null) {
+            sql.append(" AND auction_type = ?");
+        }
+        if (query.from() != null) {
+            sql.append(" AND timestamp >= ?");
+        }
+        if (query.to() != null) {
+            sql.append(" AND timestamp < ?");
+        }
+        if (query.after() != null) {
+            // Expanded form of (timestamp, id) < (?, ?); MySQL does not use indexes for row comparisons reliably.
+            sql.append(" AND (timestamp < ? OR (timestamp = ? AND id < ?))");
+        }
+        // One extra row tells us whether another page exists.
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (query.playerUuid() != null) {
+                uuidCodec.bind(pstmt, index++, query.playerUuid());
+            }
+            if (query.auctionType() != null) {
+                pstmt.setString(index++, query.auctionType());
+            }
+            if (query.from() != null) {
+                bindTimestamp(pstmt, index++, query.from(), dialect);
+            }
+            if (query.to() != null) {
+                bindTimestamp(pstmt, index++, query.to(), dialect);
+            }
+            if (query.after() != null) {
+                bindTimestamp(pstmt, index++, query.after().timestamp(), dialect);
+                bindTimestamp(pstmt, index++, query.after().timestamp(), dialect);
+                pstmt.setLong(index++, query.after().id());
+            }
+            pstmt.setInt(index, query.pageSize() + 1);
+
+            List<AuctionHistoryEntry> entries = new ArrayList<>(query.pageSize());
+            boolean more = false;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (entries.size() == query.pageSize()) {
+                        more = true;
+                        break;
+                    }
+                    entries.add(read(rs, uuidCodec, dialect));
+                }
+            }
+            HistoryCursor next = more ? HistoryCursor.after(entries.get(entries.size() - 1)) : null;
+            return new HistoryPage(entries, next);
+        }
+    }
+
+    static AuctionHistoryEntry read(ResultSet rs, UuidCodec uuidCodec, StorageType dialect) throws SQLException {
+        return new AuctionHistoryEntry(
+                rs.getInt("id"),
+                rs.getString("player_name"),
+                uuidCodec.read(rs, "player_uuid"),
+                rs.getDouble("amount"),
+                rs.getString("auction_type"),
+                rs.getString("reward"),
+                readTimestamp(rs, "timestamp", dialect)
+        );
+    }
+
+    static Timestamp readTimestamp(ResultSet rs, String column, StorageType dialect) throws SQLException {
+        if (dialect != StorageType.SQLITE) {
+            return rs.getTimestamp(column);
+        }
+        String text = rs.getString(column);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Timestamp.from(LocalDateTime.parse(text, SQLITE_TIMESTAMP_READ).toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException e) {
+            // Not in CURRENT_TIMESTAMP form, e.g. stored as epoch millis; let the driver convert it.
+            return rs.getTimestamp(column);
+        }
+    }
+
+    static void bindTimestamp(PreparedStatement pstmt, int index, Timestamp timestamp, StorageType dialect) throws SQLException {
+        if (dialect == StorageType.SQLITE) {
+            pstmt.setString(index, SQLITE_TIMESTAMP.format(timestamp.toInstant()));
+        } else {
+            pstmt.setTimestamp(index, timestamp);
+        }
+    }
+}
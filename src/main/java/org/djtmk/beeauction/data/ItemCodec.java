@@ -0,0 +1,135 @@
+package org.djtmk.beeauction.data;
+
+import org.bukkit.inventory.ItemStack;
+import org.djtmk.beeauction.util.ItemUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Reads and writes the item_data column of pending_rewards. The binary format is Paper's
+ * {@link ItemStack#serializeAsBytes()} behind a three byte header (magic, magic, flags), with
+ * the payload optionally deflated. The legacy format is Base64-encoded Java serialization.
+ * Reads detect the format from the header, so legacy rows keep working until they are
+ * re-encoded.
+ */
+public final class ItemCodec {
+    // 0x00 can never start a Base64 string, so binary and legacy values are unambiguous.
+    private static final byte MAGIC_0 = 0x00;
+    private static final byte MAGIC_1 = (byte) 0xBA;
+    private static final int HEADER_LENGTH = 3;
+    private static final byte FLAG_DEFLATED = 0x01;
+    // Small items rarely shrink enough to pay for the inflate on read.
+    private static final int COMPRESSION_THRESHOLD = 256;
+
+    public static final ItemCodec LEGACY = new ItemCodec(false, false);
+
+    private final boolean binary;
+    private final boolean compress;
+
+    private ItemCodec(boolean binary, boolean compress) {
+        this.binary = binary;
+        this.compress = compress;
+    }
+
+    public static ItemCodec of(String format, boolean compress) {
+        return "legacy".equalsIgnoreCase(format) ? LEGACY : new ItemCodec(true, compress);
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void bind(PreparedStatement pstmt, int index, ItemStack item) throws SQLException {
+        if (binary) {
+            pstmt.setBytes(index, encode(item));
+        } else {
+            pstmt.setString(index, ItemUtils.serializeItemToBase64(item));
+        }
+    }
+
+    public ItemStack read(ResultSet rs, String column) throws SQLException, IOException {
+        return decode(rs.getBytes(column));
+    }
+
+    public byte[] encode(ItemStack item) {
+        byte[] payload = item.serializeAsBytes();
+        byte flags = 0;
+        if (compress && payload.length >= COMPRESSION_THRESHOLD) {
+            byte[] deflated = deflate(payload);
+            if (deflated.length < payload.length) {
+                payload = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+        byte[] encoded = new byte[HEADER_LENGTH + payload.length];
+        encoded[0] = MAGIC_0;
+        encoded[1] = MAGIC_1;
+        encoded[2] = flags;
+        System.arraycopy(payload, 0, encoded, HEADER_LENGTH, payload.length);
+        return encoded;
+    }
+
+    public static ItemStack decode(byte[] raw) throws IOException {
+        if (raw == null) {
+            throw new IOException("Item data is missing");
+        }
+        if (!isBinaryFormat(raw)) {
+            return ItemUtils.deserializeItemFromBase64(new String(raw, StandardCharsets.US_ASCII));
+        }
+        byte[] payload = Arrays.copyOfRange(raw, HEADER_LENGTH, raw.length);
+        if ((raw[2] & FLAG_DEFLATED) != 0) {
+            payload = inflate(payload);
+        }
+        return ItemStack.deserializeBytes(payload);
+    }
+
+    public static boolean isBinaryFormat(byte[] raw) {
+        return raw != null && raw.length >= HEADER_LENGTH && raw[0] == MAGIC_0 && raw[1] == MAGIC_1;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated compressed item data");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed item data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
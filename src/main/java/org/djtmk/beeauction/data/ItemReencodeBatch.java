@@ -0,0 +1,8 @@
+package org.djtmk.beeauction.data;
+
+/**
+ * Outcome of re-encoding one batch of pending_rewards rows. {@code lastId} is where the next
+ * batch continues; a batch that scanned fewer rows than requested was the last one.
+ */
+public record ItemReencodeBatch(long lastId, int scanned, int converted) {
+}
@@ -0,0 +1,53 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.BeeAuction;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Walks pending_rewards in id order after startup and rewrites rows still stored in the legacy
+ * Base64 format, one small batch at a time with a pause in between so claims are not held up.
+ */
+public class ItemReencodeJob {
+    private final BeeAuction plugin;
+    private final int batchSize;
+    private final long pauseMillis;
+    private volatile boolean stopped;
+    private long converted;
+
+    public ItemReencodeJob(BeeAuction plugin) {
+        this.plugin = plugin;
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("database.items.reencode-batch-size", 200));
+        this.pauseMillis = Math.max(0L, plugin.getConfig().getLong("database.items.reencode-pause-ms", 500));
+    }
+
+    public void start() {
+        runBatch(0L);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    private void runBatch(long afterId) {
+        if (stopped) {
+            return;
+        }
+        plugin.getDatabaseManager().reencodeItems(afterId, batchSize).whenComplete((batch, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Stopped re-encoding legacy pending rewards", error);
+                return;
+            }
+            converted += batch.converted();
+            if (batch.scanned() < batchSize) {
+                if (converted > 0) {
+                    plugin.getLogger().info("Re-encoded " + converted + " pending reward(s) to the binary item format.");
+                }
+                return;
+            }
+            CompletableFuture.delayedExecutor(pauseMillis, TimeUnit.MILLISECONDS).execute(() -> runBatch(batch.lastId()));
+        });
+    }
+}
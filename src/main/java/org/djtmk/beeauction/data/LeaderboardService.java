@@ -0,0 +1,129 @@
+package org.djtmk.beeauction.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.djtmk.beeauction.BeeAuction;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * Top-N rankings kept in memory for placeholders and the API. Each board is an immutable list
+ * published through a volatile map, so reads never lock or touch the database. Boards are
+ * loaded from player_stats on start, updated in place whenever an auction result is saved and
+ * reloaded periodically to pick up changes made elsewhere (other servers sharing a MySQL
+ * database, /auction rebuildstats).
+ */
+public class LeaderboardService {
+
+    private final BeeAuction plugin;
+    private final int size;
+    private final long reloadTicks;
+    private volatile Map<LeaderboardType, List<PlayerStats>> boards;
+    private BukkitTask reloadTask;
+
+    public LeaderboardService(BeeAuction plugin) {
+        this.plugin = plugin;
+        this.size = Math.max(1, plugin.getConfig().getInt("leaderboards.size", 10));
+        this.reloadTicks = Math.max(0, plugin.getConfig().getLong("leaderboards.reload-minutes", 30)) * 60 * 20;
+        Map<LeaderboardType, List<PlayerStats>> empty = new EnumMap<>(LeaderboardType.class);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            empty.put(type, List.of());
+        }
+        this.boards = empty;
+    }
+
+    public void start() {
+        reload();
+        if (reloadTicks > 0) {
+            reloadTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::reload, reloadTicks, reloadTicks);
+        }
+    }
+
+    public void shutdown() {
+        if (reloadTask != null) {
+            reloadTask.cancel();
+            reloadTask = null;
+        }
+    }
+
+    /**
+     * Replaces every board with a fresh read of player_stats.
+     */
+    public CompletableFuture<Void> reload() {
+        Map<LeaderboardType, CompletableFuture<List<PlayerStats>>> loads = new EnumMap<>(LeaderboardType.class);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            loads.put(type, plugin.getDatabaseManager().getTopPlayerStats(type, size));
+        }
+        return CompletableFuture.allOf(loads.values().toArray(new CompletableFuture[0])).whenComplete((v, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to load leaderboards", error);
+                return;
+            }
+            Map<LeaderboardType, List<PlayerStats>> loaded = new EnumMap<>(LeaderboardType.class);
+            loads.forEach((type, load) -> loaded.put(type, List.copyOf(load.join())));
+            synchronized (this) {
+                boards = loaded;
+            }
+        });
+    }
+
+    /**
+     * Re-ranks a player after one of their auction results has been saved. Only their own
+     * player_stats row is read.
+     */
+    public void recordResult(UUID playerUuid) {
+        plugin.getDatabaseManager().getPlayerStats(playerUuid).whenComplete((stats, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to update leaderboards for " + playerUuid, error);
+                return;
+            }
+            offer(stats);
+        });
+    }
+
+    synchronized void offer(PlayerStats stats) {
+        Map<LeaderboardType, List<PlayerStats>> updated = new EnumMap<>(boards);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            updated.put(type, rank(type, boards.get(type), stats));
+        }
+        boards = updated;
+    }
+
+    private List<PlayerStats> rank(LeaderboardType type, List<PlayerStats> board, PlayerStats stats) {
+        List<PlayerStats> ranked = new ArrayList<>(board.size() + 1);
+        for (PlayerStats entry : board) {
+            if (!entry.playerUuid().equals(stats.playerUuid())) {
+                ranked.add(entry);
+            }
+        }
+        if (type.score(stats) > 0) {
+            ranked.add(stats);
+        }
+        ranked.sort(Comparator.comparingDouble(type::score).reversed()
+                .thenComparing(PlayerStats::playerName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return List.copyOf(ranked.size() > size ? ranked.subList(0, size) : ranked);
+    }
+
+    /**
+     * Returns the player at a 1-based rank, or null if the board is shorter than that.
+     */
+    public PlayerStats get(LeaderboardType type, int rank) {
+        List<PlayerStats> board = boards.get(type);
+        return rank >= 1 && rank <= board.size() ? board.get(rank - 1) : null;
+    }
+
+    public List<PlayerStats> getTop(LeaderboardType type) {
+        return boards.get(type);
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,48 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.util.MessageUtil;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The rankings kept by {@link LeaderboardService}. Each one orders player_stats by a single
+ * column; {@code key} and {@code valueSuffix} name its placeholders, e.g. top_spender_1 and
+ * top_spender_1_amount.
+ */
+public enum LeaderboardType {
+    WINS("winner", "wins", "wins", PlayerStats::wins),
+    SPENT("spender", "amount", "total_spent", PlayerStats::totalSpent),
+    SALE("sale", "amount", "highest_bid", PlayerStats::highestBid);
+
+    private final String key;
+    private final String valueSuffix;
+    private final String column;
+    private final ToDoubleFunction<PlayerStats> score;
+
+    LeaderboardType(String key, String valueSuffix, String column, ToDoubleFunction<PlayerStats> score) {
+        this.key = key;
+        this.valueSuffix = valueSuffix;
+        this.column = column;
+        this.score = score;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String valueSuffix() {
+        return valueSuffix;
+    }
+
+    String column() {
+        return column;
+    }
+
+    public double score(PlayerStats stats) {
+        return score.applyAsDouble(stats);
+    }
+
+    public String formatValue(PlayerStats stats) {
+        return this == WINS ? String.valueOf(stats.wins()) : MessageUtil.formatPrice(score(stats));
+    }
+}
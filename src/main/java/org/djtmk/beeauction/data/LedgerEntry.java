@@ -0,0 +1,14 @@
+package org.djtmk.beeauction.data;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * One row of the bid ledger.
+ *
+ * @param seq global sequence number; strictly increasing in the order entries were recorded
+ * @param timestamp when the row was written, null until it has been
+ */
+public record LedgerEntry(long seq, int auctionId, LedgerEntryType type, UUID playerUuid, String playerName,
+                          double amount, String note, Timestamp timestamp) {
+}
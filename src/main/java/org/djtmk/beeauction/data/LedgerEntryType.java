@@ -0,0 +1,24 @@
+package org.djtmk.beeauction.data;
+
+/**
+ * Kinds of rows in the bid ledger. Every movement of money or items made by an auction has one,
+ * including the ones that failed and need to be fixed by hand.
+ */
+public enum LedgerEntryType {
+    /** A bid was committed; the amount was withdrawn from the bidder. */
+    BID,
+    /** A bid amount was returned: outbid, cancelled auction, or a bid that lost the race. */
+    REFUND,
+    /** Returning a bid amount failed; the player is owed the amount. */
+    REFUND_FAILED,
+    /** The auction ended with this player as the winner at this amount, and the result was saved to the history. */
+    WIN,
+    /** The winner was given the item, directly or through the claim queue, or had the command run. */
+    ITEM_DELIVERED,
+    /** The seller was paid the final bid minus sales tax. */
+    PAYOUT,
+    /** Paying the seller failed; the seller is owed the amount. */
+    PAYOUT_FAILED,
+    /** The auctioned item went back to the seller (no bids, or cancelled). */
+    ITEM_RETURNED
+}
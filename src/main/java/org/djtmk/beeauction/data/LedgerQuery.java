@@ -0,0 +1,30 @@
+package org.djtmk.beeauction.data;
+
+import java.util.UUID;
+
+/**
+ * Selects ledger rows for one auction or one player, newest first. Continue with
+ * {@link #before(long)} using the sequence number of the last row returned.
+ *
+ * @param beforeSeq exclusive upper bound on the sequence number, 0 for the newest rows
+ */
+public record LedgerQuery(Integer auctionId, UUID playerUuid, long beforeSeq, int limit) {
+
+    public static final int MAX_LIMIT = 100;
+
+    public LedgerQuery {
+        limit = Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+
+    public static LedgerQuery forAuction(int auctionId, int limit) {
+        return new LedgerQuery(auctionId, null, 0L, limit);
+    }
+
+    public static LedgerQuery forPlayer(UUID playerUuid, int limit) {
+        return new LedgerQuery(null, playerUuid, 0L, limit);
+    }
+
+    public LedgerQuery before(long seq) {
+        return new LedgerQuery(auctionId, playerUuid, seq, limit);
+    }
+}
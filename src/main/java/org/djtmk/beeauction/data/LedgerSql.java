@@ -0,0 +1,92 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL for the bid_ledger table, shared by both backends. Rows are only ever inserted. Lookups
+ * walk idx_ledger_auction or idx_ledger_player backwards from a sequence number.
+ */
+public final class LedgerSql {
+
+    private static final String INSERT =
+            "INSERT INTO bid_ledger(seq, auction_id, entry_type, player_uuid, player_name, amount, note) VALUES(?,?,?,?,?,?,?)";
+
+    private static final String MAX_SEQ = "SELECT MAX(seq) FROM bid_ledger";
+
+    private LedgerSql() {
+    }
+
+    /**
+     * Inserts every entry in one transaction.
+     */
+    public static void append(Connection conn, UuidCodec uuidCodec, List<LedgerEntry> entries) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT)) {
+            for (LedgerEntry entry : entries) {
+                pstmt.setLong(1, entry.seq());
+                pstmt.setInt(2, entry.auctionId());
+                pstmt.setString(3, entry.type().name());
+                uuidCodec.bind(pstmt, 4, entry.playerUuid());
+                pstmt.setString(5, entry.playerName());
+                pstmt.setDouble(6, entry.amount());
+                pstmt.setString(7, entry.note());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    public static List<LedgerEntry> query(Connection conn, UuidCodec uuidCodec, StorageType dialect, LedgerQuery query) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT seq, auction_id, entry_type, player_uuid, player_name, amount, note, timestamp " +
+                "FROM bid_ledger WHERE ");
+        sql.append(query.auctionId() != null ? "auction_id = ?" : "player_uuid = ?");
+        if (query.beforeSeq() > 0) {
+            sql.append(" AND seq < ?");
+        }
+        sql.append(" ORDER BY seq DESC LIMIT ?");
+
+        List<LedgerEntry> entries = new ArrayList<>(query.limit());
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (query.auctionId() != null) {
+                pstmt.setInt(index++, query.auctionId());
+            } else {
+                uuidCodec.bind(pstmt, index++, query.playerUuid());
+            }
+            if (query.beforeSeq() > 0) {
+                pstmt.setLong(index++, query.beforeSeq());
+            }
+            pstmt.setInt(index, query.limit());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new LedgerEntry(rs.getLong("seq"), rs.getInt("auction_id"),
+                            LedgerEntryType.valueOf(rs.getString("entry_type")), uuidCodec.read(rs, "player_uuid"),
+                            rs.getString("player_name"), rs.getDouble("amount"), rs.getString("note"),
+                            HistoryQuerySql.readTimestamp(rs, "timestamp", dialect)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    public static long maxSeq(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(MAX_SEQ)) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+}
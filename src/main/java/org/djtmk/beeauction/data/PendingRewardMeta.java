@@ -0,0 +1,11 @@
+package org.djtmk.beeauction.data;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * A pending reward row without its item payload, for audits and exports. {@code itemBytes} is
+ * the stored size of the serialized item.
+ */
+public record PendingRewardMeta(long id, UUID playerUuid, String reason, long itemBytes, Timestamp timestamp) {
+}
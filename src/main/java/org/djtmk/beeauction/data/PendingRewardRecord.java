@@ -0,0 +1,11 @@
+package org.djtmk.beeauction.data;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.UUID;
+
+/**
+ * An item waiting to be written to pending_rewards.
+ */
+public record PendingRewardRecord(UUID playerUuid, ItemStack item, String reason) {
+}
@@ -0,0 +1,15 @@
+package org.djtmk.beeauction.data;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Aggregated auction statistics for one player, as stored in player_stats. {@code lastWin}
+ * is null for players who never won.
+ */
+public record PlayerStats(UUID playerUuid, String playerName, int wins, double totalSpent, double highestBid, Timestamp lastWin) {
+
+    public static PlayerStats empty(UUID playerUuid) {
+        return new PlayerStats(playerUuid, null, 0, 0, 0, null);
+    }
+}
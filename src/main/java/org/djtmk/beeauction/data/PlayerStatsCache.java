@@ -0,0 +1,78 @@
+package org.djtmk.beeauction.data;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.djtmk.beeauction.BeeAuction;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Per-player statistics for placeholders, read without blocking. A lookup always returns the
+ * cached value immediately and, once the value is older than the refresh interval, reloads it
+ * in the background (at most one load per player at a time). Players not looked up for the
+ * expiry interval are dropped.
+ */
+public class PlayerStatsCache {
+
+    private record Entry(PlayerStats stats, long loadedAt) {
+    }
+
+    private final BeeAuction plugin;
+    private final long refreshAfterMillis;
+    private final Cache<UUID, Entry> entries;
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+
+    public PlayerStatsCache(BeeAuction plugin) {
+        this.plugin = plugin;
+        this.refreshAfterMillis = TimeUnit.SECONDS.toMillis(Math.max(1, plugin.getConfig().getLong("placeholders.stats-cache.refresh-after-seconds", 60)));
+        this.entries = CacheBuilder.newBuilder()
+                .expireAfterAccess(Math.max(1, plugin.getConfig().getLong("placeholders.stats-cache.expire-after-access-seconds", 600)), TimeUnit.SECONDS)
+                .maximumSize(Math.max(100, plugin.getConfig().getLong("placeholders.stats-cache.maximum-size", 10000)))
+                .build();
+    }
+
+    /**
+     * Returns the cached statistics, or empty statistics while the first load is still running.
+     */
+    public PlayerStats getStats(UUID playerUuid) {
+        Entry entry = entries.getIfPresent(playerUuid);
+        if (entry == null || System.currentTimeMillis() - entry.loadedAt() >= refreshAfterMillis) {
+            refresh(playerUuid);
+        }
+        return entry == null ? PlayerStats.empty(playerUuid) : entry.stats();
+    }
+
+    public int getAuctionsWon(UUID playerUuid) {
+        return getStats(playerUuid).wins();
+    }
+
+    /**
+     * Reloads a player's statistics in the background, keeping the old value visible until the
+     * new one arrives.
+     */
+    public void refresh(UUID playerUuid) {
+        if (!loading.add(playerUuid)) {
+            return;
+        }
+        plugin.getDatabaseManager().getPlayerStats(playerUuid).whenComplete((stats, error) -> {
+            loading.remove(playerUuid);
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to load auction statistics for " + playerUuid, error);
+                return;
+            }
+            entries.put(playerUuid, new Entry(stats, System.currentTimeMillis()));
+        });
+    }
+
+    public void invalidate(UUID playerUuid) {
+        entries.invalidate(playerUuid);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+}
@@ -0,0 +1,70 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * SQL for the player_stats aggregate, shared by both backends.
+ */
+public final class PlayerStatsSql {
+
+    private PlayerStatsSql() {
+    }
+
+    // Parameters: player_uuid, player_name, amount (spent), amount (highest bid).
+    public static String upsert(StorageType dialect) {
+        if (dialect == StorageType.MYSQL) {
+            return "INSERT INTO player_stats(player_uuid, player_name, wins, total_spent, highest_bid, last_win) " +
+                    "VALUES(?,?,1,?,?,CURRENT_TIMESTAMP) ON DUPLICATE KEY UPDATE " +
+                    "player_name = VALUES(player_name), wins = wins + 1, total_spent = total_spent + VALUES(total_spent), " +
+                    "highest_bid = GREATEST(highest_bid, VALUES(highest_bid)), last_win = VALUES(last_win)";
+        }
+        return "INSERT INTO player_stats(player_uuid, player_name, wins, total_spent, highest_bid, last_win) " +
+                "VALUES(?,?,1,?,?,CURRENT_TIMESTAMP) ON CONFLICT(player_uuid) DO UPDATE SET " +
+                "player_name = excluded.player_name, wins = wins + 1, total_spent = total_spent + excluded.total_spent, " +
+                "highest_bid = MAX(highest_bid, excluded.highest_bid), last_win = excluded.last_win";
+    }
+
+    public static final String SELECT =
+            "SELECT player_uuid, player_name, wins, total_spent, highest_bid, last_win FROM player_stats WHERE player_uuid = ?";
+
+    // Ties are broken by name so the database and LeaderboardService order players the same way.
+    public static String top(LeaderboardType type) {
+        return "SELECT player_uuid, player_name, wins, total_spent, highest_bid, last_win FROM player_stats " +
+                "WHERE " + type.column() + " > 0 ORDER BY " + type.column() + " DESC, player_name ASC LIMIT ?";
+    }
+
+    public static final String CLEAR = "DELETE FROM player_stats";
+
+    /**
+     * Reads a row selected by {@link #SELECT} or {@link #top(LeaderboardType)}. last_win is
+     * read like history timestamps, so SQLite's UTC text is not shifted into the JVM's zone.
+     */
+    public static PlayerStats read(ResultSet rs, UuidCodec uuidCodec, StorageType dialect) throws SQLException {
+        return new PlayerStats(uuidCodec.read(rs, "player_uuid"), rs.getString("player_name"), rs.getInt("wins"),
+                rs.getDouble("total_spent"), rs.getDouble("highest_bid"), HistoryQuerySql.readTimestamp(rs, "last_win", dialect));
+    }
+
+    // Recomputes every row from auction_history alone. Used when player_stats is first created,
+    // before the archive table exists.
+    public static final String REBUILD_FROM_HISTORY =
+            "INSERT INTO player_stats(player_uuid, player_name, wins, total_spent, highest_bid, last_win) " +
+            "SELECT h.player_uuid, " +
+            "(SELECT l.player_name FROM auction_history l WHERE l.player_uuid = h.player_uuid ORDER BY l.timestamp DESC, l.id DESC LIMIT 1), " +
+            "COUNT(*), SUM(h.amount), MAX(h.amount), MAX(h.timestamp) " +
+            "FROM auction_history h GROUP BY h.player_uuid";
+
+    // Recomputes every row from auction_history and the rows retention moved to
+    // auction_history_archive. Archived rows are older than live ones, so the name comes from
+    // the latest live win and falls back to the latest archived one.
+    public static final String REBUILD =
+            "INSERT INTO player_stats(player_uuid, player_name, wins, total_spent, highest_bid, last_win) " +
+            "SELECT h.player_uuid, COALESCE(" +
+            "(SELECT l.player_name FROM auction_history l WHERE l.player_uuid = h.player_uuid ORDER BY l.timestamp DESC, l.id DESC LIMIT 1), " +
+            "(SELECT a.player_name FROM auction_history_archive a WHERE a.player_uuid = h.player_uuid ORDER BY a.timestamp DESC, a.id DESC LIMIT 1)), " +
+            "COUNT(*), SUM(h.amount), MAX(h.amount), MAX(h.timestamp) " +
+            "FROM (SELECT player_uuid, amount, timestamp FROM auction_history " +
+            "UNION ALL SELECT player_uuid, amount, timestamp FROM auction_history_archive) h GROUP BY h.player_uuid";
+}
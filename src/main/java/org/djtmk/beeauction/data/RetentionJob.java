@@ -0,0 +1,228 @@
+package org.djtmk.beeauction.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+import org.djtmk.beeauction.BeeAuction;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Applies database.retention during the configured off-peak window: expired history is
+ * summarized, archived or deleted, expired pending rewards are archived, and the freed space
+ * is compacted. Every step is a small batch followed by a pause, and the run stops as soon as
+ * the window closes, picking up where it left off the next night.
+ */
+public class RetentionJob {
+    private static final DateTimeFormatter WINDOW_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter RUN_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final BeeAuction plugin;
+    private final int historyDays;
+    private final RetentionMode historyMode;
+    private final int pendingRewardDays;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final boolean compactEnabled;
+    private final int compactPages;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final long checkIntervalTicks;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopped;
+    // Summary of the last finished run; null until one has finished this session.
+    private volatile String lastRun;
+    private BukkitTask checkTask;
+
+    public RetentionJob(BeeAuction plugin) {
+        this.plugin = plugin;
+        FileConfiguration config = plugin.getConfig();
+        this.historyDays = Math.max(0, config.getInt("database.retention.history-days", 365));
+        this.historyMode = RetentionMode.parse(config.getString("database.retention.history-mode", "summary"), plugin.getLogger());
+        this.pendingRewardDays = Math.max(0, config.getInt("database.retention.pending-reward-days", 0));
+        this.batchSize = Math.max(1, Math.min(RetentionSql.MAX_BATCH_SIZE, config.getInt("database.retention.batch-size", 500)));
+        this.pauseMillis = Math.max(0L, config.getLong("database.retention.pause-ms", 200));
+        this.compactEnabled = config.getBoolean("database.retention.compact", true);
+        this.compactPages = Math.max(1, config.getInt("database.retention.compact-pages", 1000));
+        this.windowStart = parseTime(config.getString("database.retention.window.start", "03:00"), LocalTime.of(3, 0));
+        this.windowEnd = parseTime(config.getString("database.retention.window.end", "06:00"), LocalTime.of(6, 0));
+        this.checkIntervalTicks = Math.max(1L, config.getLong("database.retention.check-interval-minutes", 15)) * 60 * 20;
+    }
+
+    public void start() {
+        checkTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::runIfDue, checkIntervalTicks, checkIntervalTicks);
+    }
+
+    public void stop() {
+        stopped = true;
+        if (checkTask != null) {
+            checkTask.cancel();
+            checkTask = null;
+        }
+    }
+
+    /**
+     * @return true if expired history is summarized or deleted, so it can no longer be counted
+     *         when player statistics are rebuilt
+     */
+    public boolean discardsHistory() {
+        return historyDays > 0 && historyMode != RetentionMode.ARCHIVE;
+    }
+
+    public RetentionMode getHistoryMode() {
+        return historyMode;
+    }
+
+    public int getHistoryDays() {
+        return historyDays;
+    }
+
+    public String getLastRun() {
+        if (running.get()) {
+            return "running";
+        }
+        String last = lastRun;
+        return last != null ? last : "never";
+    }
+
+    private void runIfDue() {
+        if (stopped || !inWindow() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        new Run().purgeHistory();
+    }
+
+    private boolean inWindow() {
+        LocalTime now = LocalTime.now();
+        if (windowStart.equals(windowEnd)) {
+            return true;
+        }
+        if (windowStart.isBefore(windowEnd)) {
+            return !now.isBefore(windowStart) && now.isBefore(windowEnd);
+        }
+        // The window wraps past midnight, e.g. 23:00 to 05:00.
+        return !now.isBefore(windowStart) || now.isBefore(windowEnd);
+    }
+
+    private boolean shouldContinue() {
+        return !stopped && inWindow();
+    }
+
+    private void later(Runnable step) {
+        CompletableFuture.delayedExecutor(pauseMillis, TimeUnit.MILLISECONDS).execute(step);
+    }
+
+    private LocalTime parseTime(String value, LocalTime fallback) {
+        try {
+            return LocalTime.parse(value, WINDOW_FORMAT);
+        } catch (DateTimeParseException | NullPointerException e) {
+            plugin.getLogger().warning("Invalid database.retention window time '" + value + "', using " + fallback);
+            return fallback;
+        }
+    }
+
+    /**
+     * One pass through the steps. Cutoffs are fixed when the pass starts.
+     */
+    private final class Run {
+        private final Timestamp historyCutoff = cutoff(historyDays);
+        private final Timestamp rewardCutoff = cutoff(pendingRewardDays);
+        private long historyRemoved;
+        private long rewardsArchived;
+
+        private Timestamp cutoff(int days) {
+            return days > 0 ? new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days)) : null;
+        }
+
+        void purgeHistory() {
+            if (historyCutoff == null) {
+                archiveRewards();
+                return;
+            }
+            if (!shouldContinue()) {
+                finish(false);
+                return;
+            }
+            plugin.getDatabaseManager().purgeHistory(historyCutoff, historyMode, batchSize).whenComplete((removed, error) -> {
+                if (error != null) {
+                    fail(error);
+                    return;
+                }
+                historyRemoved += removed;
+                if (removed < batchSize) {
+                    archiveRewards();
+                } else {
+                    later(this::purgeHistory);
+                }
+            });
+        }
+
+        void archiveRewards() {
+            if (rewardCutoff == null) {
+                compact();
+                return;
+            }
+            if (!shouldContinue()) {
+                finish(false);
+                return;
+            }
+            plugin.getDatabaseManager().archivePendingRewards(rewardCutoff, batchSize).whenComplete((archived, error) -> {
+                if (error != null) {
+                    fail(error);
+                    return;
+                }
+                rewardsArchived += archived;
+                if (archived < batchSize) {
+                    compact();
+                } else {
+                    later(this::archiveRewards);
+                }
+            });
+        }
+
+        void compact() {
+            if (!compactEnabled || historyRemoved + rewardsArchived == 0) {
+                finish(true);
+                return;
+            }
+            if (!shouldContinue()) {
+                finish(false);
+                return;
+            }
+            plugin.getDatabaseManager().compact(compactPages).whenComplete((remaining, error) -> {
+                if (error != null) {
+                    fail(error);
+                    return;
+                }
+                if (remaining > 0) {
+                    later(this::compact);
+                } else {
+                    finish(true);
+                }
+            });
+        }
+
+        private void finish(boolean complete) {
+            lastRun = LocalDateTime.now().format(RUN_FORMAT) + " (" + historyRemoved + " history row(s) " + historyMode.pastTense()
+                    + ", " + rewardsArchived + " reward(s) archived" + (complete ? "" : ", window closed") + ")";
+            if (historyRemoved + rewardsArchived > 0) {
+                plugin.getLogger().info("Retention: " + lastRun);
+            }
+            running.set(false);
+        }
+
+        private void fail(Throwable error) {
+            plugin.getLogger().log(Level.WARNING, "Retention run stopped", error);
+            lastRun = LocalDateTime.now().format(RUN_FORMAT) + " (failed, see console)";
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.djtmk.beeauction.data;
+
+import java.util.logging.Logger;
+
+/**
+ * What the retention job does with auction_history rows past the retention period. Every mode
+ * removes them from auction_history; player_stats keeps lifetime totals either way.
+ */
+public enum RetentionMode {
+    /** Drop the rows. */
+    DELETE,
+    /** Fold the rows into per-month, per-type totals in auction_history_monthly. */
+    SUMMARY,
+    /** Move the rows unchanged into auction_history_archive. */
+    ARCHIVE;
+
+    public String pastTense() {
+        return switch (this) {
+            case DELETE -> "deleted";
+            case SUMMARY -> "summarized";
+            case ARCHIVE -> "archived";
+        };
+    }
+
+    public static RetentionMode parse(String value, Logger logger) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            logger.warning("Unknown database.retention.history-mode '" + value + "', using summary");
+            return SUMMARY;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bounded retention and compaction steps, shared by both backends. Each call handles at most
+ * {@code limit} rows in one short transaction, so the retention job can pause between batches
+ * and never holds locks for long.
+ */
+public final class RetentionSql {
+
+    // Stays below SQLite's default limit of 999 bound parameters per statement.
+    public static final int MAX_BATCH_SIZE = 900;
+
+    private RetentionSql() {
+    }
+
+    /**
+     * Removes up to {@code limit} of the oldest auction_history rows older than {@code cutoff},
+     * summarizing or archiving them first depending on the mode.
+     *
+     * @return the number of rows removed; fewer than {@code limit} means nothing is left
+     */
+    public static int purgeHistory(Connection conn, StorageType dialect, Timestamp cutoff, RetentionMode mode, int limit) throws SQLException {
+        List<Long> ids = selectExpired(conn, dialect, "auction_history", cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        inTransaction(conn, () -> {
+            if (mode == RetentionMode.SUMMARY) {
+                execute(conn, summarize(dialect, in), ids);
+            } else if (mode == RetentionMode.ARCHIVE) {
+                execute(conn, "INSERT INTO auction_history_archive(id, player_name, player_uuid, amount, auction_type, reward, timestamp) " +
+                        "SELECT id, player_name, player_uuid, amount, auction_type, reward, timestamp FROM auction_history WHERE id IN (" + in + ")", ids);
+            }
+            execute(conn, "DELETE FROM auction_history WHERE id IN (" + in + ")", ids);
+        });
+        return ids.size();
+    }
+
+    /**
+     * Moves up to {@code limit} unclaimed rewards older than {@code cutoff} into
+     * pending_rewards_archive, items included, so they can still be restored by hand.
+     */
+    public static int archivePendingRewards(Connection conn, StorageType dialect, Timestamp cutoff, int limit) throws SQLException {
+        List<Long> ids = selectExpired(conn, dialect, "pending_rewards", cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        inTransaction(conn, () -> {
+            execute(conn, "INSERT INTO pending_rewards_archive(id, player_uuid, item_data, reason, timestamp) " +
+                    "SELECT id, player_uuid, item_data, reason, timestamp FROM pending_rewards WHERE id IN (" + in + ")", ids);
+            execute(conn, "DELETE FROM pending_rewards WHERE id IN (" + in + ")", ids);
+        });
+        return ids.size();
+    }
+
+    /**
+     * Returns free space to the file system. On SQLite this releases up to {@code pages} free
+     * pages and returns how many remain; the first call switches the file to incremental
+     * auto-vacuum, which needs one full VACUUM. On MySQL it runs OPTIMIZE TABLE on the purged
+     * tables and returns 0; that is a single unbounded rebuild of each table, so MySQLManager
+     * only calls it when database.retention.mysql-optimize is on.
+     */
+    public static long compact(Connection conn, StorageType dialect, int pages) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (dialect == StorageType.MYSQL) {
+                try (ResultSet rs = stmt.executeQuery("OPTIMIZE TABLE auction_history, pending_rewards")) {
+                    while (rs.next()) {
+                        // Drain the per-table status rows.
+                    }
+                }
+                return 0;
+            }
+            if (queryLong(stmt, "PRAGMA auto_vacuum") != 2) {
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                stmt.execute("VACUUM");
+                return 0;
+            }
+            // incremental_vacuum frees one page per step, so the statement has to be stepped to the end.
+            if (stmt.execute("PRAGMA incremental_vacuum(" + Math.max(1, pages) + ")")) {
+                try (ResultSet rs = stmt.getResultSet()) {
+                    while (rs.next()) {
+                        // Each row is one freed page.
+                    }
+                }
+            }
+            return queryLong(stmt, "PRAGMA freelist_count");
+        }
+    }
+
+    private static String summarize(StorageType dialect, String in) {
+        if (dialect == StorageType.MYSQL) {
+            return "INSERT INTO auction_history_monthly(month, auction_type, sales, total_amount, highest_amount) " +
+                    "SELECT DATE_FORMAT(timestamp, '%Y-%m') AS m, auction_type AS t, COUNT(*) AS c, SUM(amount) AS s, MAX(amount) AS h " +
+                    "FROM auction_history WHERE id IN (" + in + ") GROUP BY m, t " +
+                    "ON DUPLICATE KEY UPDATE sales = sales + VALUES(sales), total_amount = total_amount + VALUES(total_amount), " +
+                    "highest_amount = GREATEST(highest_amount, VALUES(highest_amount))";
+        }
+        return "INSERT INTO auction_history_monthly(month, auction_type, sales, total_amount, highest_amount) " +
+                "SELECT strftime('%Y-%m', timestamp), auction_type, COUNT(*), SUM(amount), MAX(amount) " +
+                "FROM auction_history WHERE id IN (" + in + ") GROUP BY 1, 2 " +
+                "ON CONFLICT(month, auction_type) DO UPDATE SET sales = sales + excluded.sales, " +
+                "total_amount = total_amount + excluded.total_amount, highest_amount = MAX(highest_amount, excluded.highest_amount)";
+    }
+
+    private static List<Long> selectExpired(Connection conn, StorageType dialect, String table, Timestamp cutoff, int limit) throws SQLException {
+        String sql = "SELECT id FROM " + table + " WHERE timestamp < ? ORDER BY timestamp, id LIMIT ?";
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            HistoryQuerySql.bindTimestamp(pstmt, 1, cutoff, dialect);
+            pstmt.setInt(2, Math.max(1, Math.min(MAX_BATCH_SIZE, limit)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void execute(Connection conn, String sql, List<Long> ids) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                pstmt.setLong(i + 1, ids.get(i));
+            }
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    private static void inTransaction(Connection conn, SqlWork work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            work.run();
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package org.djtmk.beeauction.data;
 
+import org.bukkit.configuration.file.FileConfiguration;
 import org.djtmk.beeauction.BeeAuction;
-import org.djtmk.beeauction.util.ItemUtils;
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
 import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
@@ -10,15 +11,24 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 public class SQLiteHandler implements DatabaseHandler {
     private final BeeAuction plugin;
     private File databaseFile;
+    // Both connections stay open for the life of the plugin. In WAL mode the read connection
+    // sees the last committed state without waiting on the writer, so history and placeholder
+    // reads do not queue behind reward writes.
     private Connection connection;
+    private Connection readConnection;
+    private volatile UuidCodec uuidCodec = UuidCodec.TEXT;
+    private final ItemCodec itemCodec;
 
     public SQLiteHandler(BeeAuction plugin) {
         this.plugin = plugin;
+        this.itemCodec = ItemCodec.of(plugin.getConfig().getString("database.items.format", "binary"),
+                plugin.getConfig().getBoolean("database.items.compress", true));
     }
 
     @Override
@@ -32,110 +42,255 @@ public class SQLiteHandler implements DatabaseHandler {
     }
 
     @Override
-    public void shutdown() {
+    public synchronized void shutdown() {
         try {
             if (connection != null && !connection.isClosed()) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("PRAGMA optimize");
+                }
                 connection.close();
             }
+            if (readConnection != null && !readConnection.isClosed()) {
+                readConnection.close();
+            }
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Error closing SQLite connection", e);
         }
     }
 
+    /**
+     * Returns the shared write connection. Callers must not close it.
+     */
     @Override
-    public Connection getConnection() throws SQLException {
+    public synchronized Connection getConnection() throws SQLException {
         if (connection == null || connection.isClosed()) {
-            try {
-                Class.forName("org.sqlite.JDBC");
-                connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("SQLite JDBC driver not found", e);
-            }
+            connection = openConnection(false);
         }
         return connection;
     }
 
+    /**
+     * Returns the shared read-only connection. Callers must not close it.
+     */
     @Override
-    public void createTables() {
-        String historyTable = "CREATE TABLE IF NOT EXISTS auction_history (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "player_name VARCHAR(16) NOT NULL, " +
-                "player_uuid VARCHAR(36) NOT NULL, " + // UPDATED
-                "amount DOUBLE NOT NULL, " +
-                "auction_type VARCHAR(16) NOT NULL, " +
-                "reward TEXT NOT NULL, " +
-                "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ");";
-        // NEW: Table for storing items for offline players.
-        String rewardsTable = "CREATE TABLE IF NOT EXISTS pending_rewards (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "player_uuid VARCHAR(36) NOT NULL, " +
-                "item_data TEXT NOT NULL, " +
-                "reason TEXT, " +
-                "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ");";
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-            stmt.execute(historyTable);
-            stmt.execute(rewardsTable);
+    public synchronized Connection getReadConnection() throws SQLException {
+        if (readConnection == null || readConnection.isClosed()) {
+            // The writer must exist first so the journal mode is switched before any reader opens.
+            getConnection();
+            readConnection = openConnection(true);
+        }
+        return readConnection;
+    }
+
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite JDBC driver not found", e);
+        }
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        FileConfiguration config = plugin.getConfig();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + Math.max(0, config.getInt("database.sqlite.busy-timeout-ms", 5000)));
+            if (!readOnly) {
+                String journalMode = config.getString("database.sqlite.journal-mode", "WAL").toUpperCase();
+                if (!journalMode.matches("DELETE|TRUNCATE|PERSIST|MEMORY|WAL|OFF")) {
+                    plugin.getLogger().warning("Unknown database.sqlite.journal-mode '" + journalMode + "', using WAL");
+                    journalMode = "WAL";
+                }
+                stmt.execute("PRAGMA journal_mode = " + journalMode);
+            }
+            String synchronous = config.getString("database.sqlite.synchronous", "NORMAL").toUpperCase();
+            if (!synchronous.matches("OFF|NORMAL|FULL|EXTRA")) {
+                plugin.getLogger().warning("Unknown database.sqlite.synchronous '" + synchronous + "', using NORMAL");
+                synchronous = "NORMAL";
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            // A negative cache_size is interpreted by SQLite as KiB rather than pages.
+            stmt.execute("PRAGMA cache_size = " + (-Math.max(0, config.getInt("database.sqlite.cache-size-kb", 8192))));
+            stmt.execute("PRAGMA mmap_size = " + (Math.max(0L, config.getLong("database.sqlite.mmap-size-mb", 64)) * 1024L * 1024L));
+            stmt.execute("PRAGMA temp_store = MEMORY");
+            stmt.execute("PRAGMA foreign_keys = ON");
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to create database tables", e);
+            conn.close();
+            throw e;
         }
+        return conn;
     }
 
     @Override
-    public void saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward) {
-        String sql = "INSERT INTO auction_history(player_name, player_uuid, amount, auction_type, reward) VALUES(?,?,?,?,?)";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, playerName);
-            pstmt.setString(2, playerUuid.toString()); // UPDATED
-            pstmt.setDouble(3, amount);
-            pstmt.setString(4, auctionType);
-            pstmt.setString(5, reward);
-            pstmt.executeUpdate();
+    public void createTables() {
+        try {
+            Connection conn = getConnection();
+            SchemaMigrator migrator = new SchemaMigrator(plugin.getLogger(), StorageType.SQLITE);
+            migrator.migrate(conn);
+            uuidCodec = migrator.migrateUuidLayout(conn, plugin.getConfig().getBoolean("database.compact-uuids", false));
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save auction result", e);
+            plugin.getLogger().log(Level.SEVERE, "Failed to create database tables", e);
         }
     }
 
+    @Override
+    public void saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward) throws SQLException {
+        writeBatch(List.of(new AuctionResultRecord(playerName, playerUuid, amount, auctionType, reward)), List.of());
+    }
+
     @Override
     public List<AuctionHistoryEntry> getAuctionHistory() throws SQLException {
-        // FIXED: Process ResultSet inside try-with-resources to prevent resource leak
-        String sql = "SELECT * FROM auction_history ORDER BY timestamp DESC LIMIT 10";
-        List<AuctionHistoryEntry> entries = new ArrayList<>();
+        return queryHistory(HistoryQuery.firstPage(10)).entries();
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    @Override
+    public HistoryPage queryHistory(HistoryQuery query) throws SQLException {
+        return HistoryQuerySql.execute(getReadConnection(), query, uuidCodec, StorageType.SQLITE);
+    }
 
-            while (rs.next()) {
-                AuctionHistoryEntry entry = new AuctionHistoryEntry(
-                        rs.getInt("id"),
-                        rs.getString("player_name"),
-                        UUID.fromString(rs.getString("player_uuid")),
-                        rs.getDouble("amount"),
-                        rs.getString("auction_type"),
-                        rs.getString("reward"),
-                        rs.getTimestamp("timestamp")
-                );
-                entries.add(entry);
+    @Override
+    public long streamHistory(Consumer<AuctionHistoryEntry> consumer) throws SQLException {
+        // A private connection, so a long export never holds the shared read connection.
+        try (Connection conn = openConnection(true);
+             PreparedStatement pstmt = conn.prepareStatement(ExportSql.HISTORY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(ExportSql.FETCH_SIZE);
+            long count = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(ExportSql.readHistory(rs, uuidCodec, StorageType.SQLITE));
+                    count++;
+                }
             }
+            return count;
         }
-        return entries;
     }
 
     @Override
-    public void addPendingReward(UUID playerUuid, ItemStack item, String reason) {
+    public long streamPendingRewardMeta(Consumer<PendingRewardMeta> consumer) throws SQLException {
+        try (Connection conn = openConnection(true);
+             PreparedStatement pstmt = conn.prepareStatement(ExportSql.PENDING_REWARDS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(ExportSql.FETCH_SIZE);
+            long count = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(ExportSql.readPendingReward(rs, uuidCodec));
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    @Override
+    public int purgeHistory(Timestamp cutoff, RetentionMode mode, int limit) throws SQLException {
+        return RetentionSql.purgeHistory(getConnection(), StorageType.SQLITE, cutoff, mode, limit);
+    }
+
+    @Override
+    public int archivePendingRewards(Timestamp cutoff, int limit) throws SQLException {
+        return RetentionSql.archivePendingRewards(getConnection(), StorageType.SQLITE, cutoff, limit);
+    }
+
+    @Override
+    public long compact(int pages) throws SQLException {
+        return RetentionSql.compact(getConnection(), StorageType.SQLITE, pages);
+    }
+
+    @Override
+    public void saveAuctionStates(List<AuctionStateRecord> states) throws SQLException {
+        AuctionStateSql.save(getConnection(), StorageType.SQLITE, itemCodec, states);
+    }
+
+    @Override
+    public List<AuctionStateRecord> loadOpenAuctions() throws SQLException {
+        return AuctionStateSql.loadOpen(getReadConnection());
+    }
+
+    @Override
+    public int getMaxAuctionId() throws SQLException {
+        return AuctionStateSql.maxId(getReadConnection());
+    }
+
+    @Override
+    public void appendLedgerEntries(List<LedgerEntry> entries) throws SQLException {
+        LedgerSql.append(getConnection(), uuidCodec, entries);
+    }
+
+    @Override
+    public List<LedgerEntry> queryLedger(LedgerQuery query) throws SQLException {
+        return LedgerSql.query(getReadConnection(), uuidCodec, StorageType.SQLITE, query);
+    }
+
+    @Override
+    public long getMaxLedgerSeq() throws SQLException {
+        return LedgerSql.maxSeq(getReadConnection());
+    }
+
+    @Override
+    public void addPendingReward(UUID playerUuid, ItemStack item, String reason) throws SQLException {
         String sql = "INSERT INTO pending_rewards(player_uuid, item_data, reason) VALUES(?,?,?)";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, playerUuid.toString());
-            pstmt.setString(2, ItemUtils.serializeItemToBase64(item));
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            uuidCodec.bind(pstmt, 1, playerUuid);
+            itemCodec.bind(pstmt, 2, item);
             pstmt.setString(3, reason);
             pstmt.executeUpdate();
-        } catch (SQLException | IllegalStateException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not add pending reward to database", e);
         }
     }
 
+    @Override
+    public void writeBatch(List<AuctionResultRecord> results, List<PendingRewardRecord> rewards) throws SQLException {
+        Connection conn = getConnection();
+        conn.setAutoCommit(false);
+        try {
+            if (!results.isEmpty()) {
+                String sql = "INSERT INTO auction_history(player_name, player_uuid, amount, auction_type, reward) VALUES(?,?,?,?,?)";
+                // player_stats is updated in the same transaction, so it never drifts from the history.
+                try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                     PreparedStatement statsStmt = conn.prepareStatement(PlayerStatsSql.upsert(StorageType.SQLITE))) {
+                    for (AuctionResultRecord result : results) {
+                        pstmt.setString(1, result.playerName());
+                        uuidCodec.bind(pstmt, 2, result.playerUuid());
+                        pstmt.setDouble(3, result.amount());
+                        pstmt.setString(4, result.auctionType());
+                        pstmt.setString(5, result.reward());
+                        pstmt.addBatch();
+
+                        uuidCodec.bind(statsStmt, 1, result.playerUuid());
+                        statsStmt.setString(2, result.playerName());
+                        statsStmt.setDouble(3, result.amount());
+                        statsStmt.setDouble(4, result.amount());
+                        statsStmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    statsStmt.executeBatch();
+                }
+            }
+            if (!rewards.isEmpty()) {
+                String sql = "INSERT INTO pending_rewards(player_uuid, item_data, reason) VALUES(?,?,?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (PendingRewardRecord reward : rewards) {
+                        uuidCodec.bind(pstmt, 1, reward.playerUuid());
+                        itemCodec.bind(pstmt, 2, reward.item());
+                        pstmt.setString(3, reward.reason());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public ItemReencodeBatch reencodeItems(long afterId, int limit) throws SQLException {
+        return new SchemaMigrator(plugin.getLogger(), StorageType.SQLITE).reencodeItems(getConnection(), itemCodec, afterId, limit);
+    }
+
     @Override
     public List<ItemStack> getAndRemovePendingRewards(UUID playerUuid) throws SQLException {
         // FIXED: Use transaction with row-level locking to prevent race condition
@@ -152,14 +307,14 @@ public class SQLiteHandler implements DatabaseHandler {
             conn.setAutoCommit(false);
 
             try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                selectStmt.setString(1, playerUuid.toString());
+                uuidCodec.bind(selectStmt, 1, playerUuid);
                 ResultSet rs = selectStmt.executeQuery();
                 while (rs.next()) {
                     idsToRemove.add(rs.getInt("id"));
                     try {
-                        ItemStack item = ItemUtils.deserializeItemFromBase64(rs.getString("item_data"));
+                        ItemStack item = itemCodec.read(rs, "item_data");
                         items.add(item);
-                    } catch (IOException e) {
+                    } catch (IOException | RuntimeException e) {
                         plugin.getLogger().log(Level.WARNING, "Could not deserialize a pending item reward.", e);
                     }
                 }
@@ -196,25 +351,74 @@ public class SQLiteHandler implements DatabaseHandler {
     @Override
     public boolean hasPendingRewards(UUID playerUuid) throws SQLException {
         String sql = "SELECT 1 FROM pending_rewards WHERE player_uuid = ? LIMIT 1";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, playerUuid.toString());
+        try (PreparedStatement pstmt = getReadConnection().prepareStatement(sql)) {
+            uuidCodec.bind(pstmt, 1, playerUuid);
             try (ResultSet rs = pstmt.executeQuery()) {
                 return rs.next();
             }
         }
     }
 
+    @Override
+    public int loadPendingRewardOwners(Consumer<UUID> consumer) throws SQLException {
+        String sql = "SELECT DISTINCT player_uuid FROM pending_rewards";
+        int count = 0;
+        try (PreparedStatement pstmt = getReadConnection().prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                consumer.accept(uuidCodec.read(rs, "player_uuid"));
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     public int getAuctionsWonCount(UUID playerUuid) throws SQLException {
-        String sql = "SELECT COUNT(*) as count FROM auction_history WHERE player_uuid = ?";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, playerUuid.toString());
+        return getPlayerStats(playerUuid).wins();
+    }
+
+    @Override
+    public PlayerStats getPlayerStats(UUID playerUuid) throws SQLException {
+        try (PreparedStatement pstmt = getReadConnection().prepareStatement(PlayerStatsSql.SELECT)) {
+            uuidCodec.bind(pstmt, 1, playerUuid);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getInt("count");
+                    return PlayerStatsSql.read(rs, uuidCodec, StorageType.SQLITE);
                 }
             }
         }
-        return 0;
+        return PlayerStats.empty(playerUuid);
+    }
+
+    @Override
+    public List<PlayerStats> getTopPlayerStats(LeaderboardType type, int limit) throws SQLException {
+        List<PlayerStats> top = new ArrayList<>();
+        try (PreparedStatement pstmt = getReadConnection().prepareStatement(PlayerStatsSql.top(type))) {
+            pstmt.setInt(1, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    top.add(PlayerStatsSql.read(rs, uuidCodec, StorageType.SQLITE));
+                }
+            }
+        }
+        return top;
+    }
+
+    @Override
+    public int rebuildPlayerStats() throws SQLException {
+        Connection conn = getConnection();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(PlayerStatsSql.CLEAR);
+            int rows = stmt.executeUpdate(PlayerStatsSql.REBUILD);
+            conn.commit();
+            return rows;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
     }
 }
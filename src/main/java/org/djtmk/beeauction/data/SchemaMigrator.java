@@ -0,0 +1,471 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Brings the database schema up to date on both backends. Every change to the schema is a
+ * numbered step; applied steps are recorded in {@code schema_version}, so each one runs exactly
+ * once per database, in order. New schema changes must be appended as a new step, never made
+ * by editing an existing one.
+ */
+public class SchemaMigrator {
+
+    @FunctionalInterface
+    public interface Migration {
+        void apply(Connection conn, StorageType dialect) throws SQLException;
+    }
+
+    private record Step(int version, String description, Migration migration) {
+    }
+
+    private static final List<Step> STEPS = List.of(
+            new Step(1, "Create auction_history and pending_rewards", SchemaMigrator::createBaseTables),
+            new Step(2, "Index player_uuid and timestamp lookups", SchemaMigrator::addLookupIndexes),
+            new Step(3, "Create schema_meta", SchemaMigrator::createMetaTable),
+            new Step(4, "Store pending reward items as binary", SchemaMigrator::makeItemDataBinary),
+            new Step(5, "Create and backfill player_stats", SchemaMigrator::createPlayerStats),
+            new Step(6, "Index player_stats leaderboard columns", SchemaMigrator::addLeaderboardIndexes),
+            new Step(7, "Index auction_history for keyset pagination", SchemaMigrator::addHistoryPagingIndexes),
+            new Step(8, "Create retention archive and summary tables", SchemaMigrator::createRetentionTables),
+            new Step(9, "Create auctions for live auction state", SchemaMigrator::createAuctionStateTable),
+            new Step(10, "Create bid_ledger", SchemaMigrator::createBidLedger)
+    );
+
+    // Every table holding a player UUID column; converted together when the layout changes.
+    private static final List<String> UUID_TABLES = List.of("auction_history", "pending_rewards", "player_stats",
+            "auction_history_archive", "pending_rewards_archive", "bid_ledger");
+    private static final String UUID_LAYOUT_KEY = "uuid_layout";
+    private static final int CONVERT_BATCH_SIZE = 1000;
+
+    private final Logger logger;
+    private final StorageType dialect;
+
+    public SchemaMigrator(Logger logger, StorageType dialect) {
+        this.logger = logger;
+        this.dialect = dialect;
+    }
+
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INTEGER PRIMARY KEY, " +
+                    "description VARCHAR(255) NOT NULL, " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+
+        int current = getCurrentVersion(conn);
+        for (Step step : STEPS) {
+            if (step.version() <= current) {
+                continue;
+            }
+            applyStep(conn, step);
+            logger.info("Applied database migration " + step.version() + ": " + step.description());
+        }
+    }
+
+    /**
+     * Converts the player_uuid columns to the requested layout if they are not already stored
+     * that way, and returns the codec callers must use from then on.
+     */
+    public UuidCodec migrateUuidLayout(Connection conn, boolean compact) throws SQLException {
+        UuidCodec target = UuidCodec.of(compact);
+        String current = getMeta(conn, UUID_LAYOUT_KEY);
+        if (target.layoutName().equals(current == null ? UuidCodec.TEXT.layoutName() : current)) {
+            return target;
+        }
+
+        logger.info("Converting stored player UUIDs to the " + target.layoutName() + " layout...");
+        for (String table : UUID_TABLES) {
+            if (dialect == StorageType.MYSQL) {
+                convertUuidColumnMySQL(conn, table, compact);
+            } else {
+                convertUuidColumnSQLite(conn, table, compact);
+            }
+        }
+        setMeta(conn, UUID_LAYOUT_KEY, target.layoutName());
+        logger.info("Player UUID layout is now " + target.layoutName() + ".");
+        return target;
+    }
+
+    /**
+     * Rewrites up to {@code limit} pending_rewards rows after {@code afterId} that are not yet in
+     * the codec's binary format. Rows that cannot be decoded are left untouched and logged.
+     */
+    public ItemReencodeBatch reencodeItems(Connection conn, ItemCodec codec, long afterId, int limit) throws SQLException {
+        String select = "SELECT id, item_data FROM pending_rewards WHERE id > ? ORDER BY id LIMIT ?";
+        String update = "UPDATE pending_rewards SET item_data = ? WHERE id = ?";
+        long lastId = afterId;
+        int scanned = 0;
+        int converted = 0;
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement selectStmt = conn.prepareStatement(select);
+             PreparedStatement updateStmt = conn.prepareStatement(update)) {
+            selectStmt.setLong(1, afterId);
+            selectStmt.setInt(2, limit);
+            try (ResultSet rs = selectStmt.executeQuery()) {
+                while (rs.next()) {
+                    scanned++;
+                    lastId = rs.getLong("id");
+                    byte[] raw = rs.getBytes("item_data");
+                    if (ItemCodec.isBinaryFormat(raw)) {
+                        continue;
+                    }
+                    try {
+                        codec.bind(updateStmt, 1, ItemCodec.decode(raw));
+                    } catch (IOException | RuntimeException e) {
+                        logger.log(Level.WARNING, "Could not re-encode pending reward #" + lastId + ", leaving it as is", e);
+                        continue;
+                    }
+                    updateStmt.setLong(2, lastId);
+                    updateStmt.addBatch();
+                    converted++;
+                }
+            }
+            if (converted > 0) {
+                updateStmt.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return new ItemReencodeBatch(lastId, scanned, converted);
+    }
+
+    public int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void applyStep(Connection conn, Step step) throws SQLException {
+        // MySQL commits DDL implicitly, so steps must be safe to re-run if they fail half way.
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            step.migration().apply(conn, dialect);
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO schema_version(version, description) VALUES(?,?)")) {
+                pstmt.setInt(1, step.version());
+                pstmt.setString(2, step.description());
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Database migration " + step.version() + " (" + step.description() + ") failed", e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Each conversion only touches rows still in the old layout, so an interrupted run can resume.
+    private void convertUuidColumnMySQL(Connection conn, String table, boolean compact) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " MODIFY player_uuid VARBINARY(36) NOT NULL");
+            if (compact) {
+                stmt.executeUpdate("UPDATE " + table + " SET player_uuid = UNHEX(REPLACE(player_uuid, '-', '')) " +
+                        "WHERE LENGTH(player_uuid) = 36");
+                stmt.execute("ALTER TABLE " + table + " MODIFY player_uuid BINARY(16) NOT NULL");
+            } else {
+                stmt.executeUpdate("UPDATE " + table + " SET player_uuid = LOWER(INSERT(INSERT(INSERT(INSERT(" +
+                        "HEX(player_uuid), 9, 0, '-'), 14, 0, '-'), 19, 0, '-'), 24, 0, '-')) " +
+                        "WHERE LENGTH(player_uuid) = 16");
+                stmt.execute("ALTER TABLE " + table + " MODIFY player_uuid VARCHAR(36) NOT NULL");
+            }
+        }
+    }
+
+    private void convertUuidColumnSQLite(Connection conn, String table, boolean compact) throws SQLException {
+        // SQLite columns are dynamically typed, so values are rewritten in place and the
+        // declared VARCHAR(36) type is left alone. Each batch commits on its own, so the write
+        // lock is released between batches instead of being held for the whole table.
+        String select = "SELECT rowid AS row_id, player_uuid FROM " + table + " WHERE rowid > ? AND typeof(player_uuid) = '" +
+                (compact ? "text" : "blob") + "' ORDER BY rowid LIMIT " + CONVERT_BATCH_SIZE;
+        String update = "UPDATE " + table + " SET player_uuid = ? WHERE rowid = ?";
+        UuidCodec target = UuidCodec.of(compact);
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement selectStmt = conn.prepareStatement(select);
+             PreparedStatement updateStmt = conn.prepareStatement(update)) {
+            long lastRowId = 0;
+            int converted;
+            do {
+                converted = 0;
+                selectStmt.setLong(1, lastRowId);
+                try (ResultSet rs = selectStmt.executeQuery()) {
+                    while (rs.next()) {
+                        lastRowId = rs.getLong("row_id");
+                        target.bind(updateStmt, 1, UuidCodec.TEXT.read(rs, "player_uuid"));
+                        updateStmt.setLong(2, lastRowId);
+                        updateStmt.addBatch();
+                        converted++;
+                    }
+                }
+                if (converted > 0) {
+                    updateStmt.executeBatch();
+                }
+                conn.commit();
+            } while (converted == CONVERT_BATCH_SIZE);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private String getMeta(Connection conn, String key) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT meta_value FROM schema_meta WHERE meta_key = ?")) {
+            pstmt.setString(1, key);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private void setMeta(Connection conn, String key, String value) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM schema_meta WHERE meta_key = ?");
+             PreparedStatement insert = conn.prepareStatement("INSERT INTO schema_meta(meta_key, meta_value) VALUES(?,?)")) {
+            delete.setString(1, key);
+            delete.executeUpdate();
+            insert.setString(1, key);
+            insert.setString(2, value);
+            insert.executeUpdate();
+        }
+    }
+
+    private static void createBaseTables(Connection conn, StorageType dialect) throws SQLException {
+        String autoIncrement = dialect == StorageType.MYSQL ? "AUTO_INCREMENT" : "AUTOINCREMENT";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS auction_history (" +
+                    "id INTEGER PRIMARY KEY " + autoIncrement + ", " +
+                    "player_name VARCHAR(16) NOT NULL, " +
+                    "player_uuid VARCHAR(36) NOT NULL, " +
+                    "amount DOUBLE NOT NULL, " +
+                    "auction_type VARCHAR(16) NOT NULL, " +
+                    "reward TEXT NOT NULL, " +
+                    "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS pending_rewards (" +
+                    "id INTEGER PRIMARY KEY " + autoIncrement + ", " +
+                    "player_uuid VARCHAR(36) NOT NULL, " +
+                    "item_data TEXT NOT NULL, " +
+                    "reason TEXT, " +
+                    "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+    }
+
+    private static void addLookupIndexes(Connection conn, StorageType dialect) throws SQLException {
+        createIndex(conn, dialect, "idx_history_player", "auction_history", "player_uuid");
+        createIndex(conn, dialect, "idx_history_timestamp", "auction_history", "timestamp");
+        createIndex(conn, dialect, "idx_rewards_player", "pending_rewards", "player_uuid");
+    }
+
+    private static void createMetaTable(Connection conn, StorageType dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_meta (" +
+                    "meta_key VARCHAR(64) PRIMARY KEY, " +
+                    "meta_value VARCHAR(255) NOT NULL" +
+                    ")");
+        }
+    }
+
+    private static void makeItemDataBinary(Connection conn, StorageType dialect) throws SQLException {
+        // SQLite stores whatever is bound, so only MySQL needs a column type that holds raw bytes.
+        // Existing Base64 text carries over unchanged and is still readable.
+        if (dialect == StorageType.MYSQL) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE pending_rewards MODIFY item_data LONGBLOB NOT NULL");
+            }
+        }
+    }
+
+    private static void createPlayerStats(Connection conn, StorageType dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS player_stats (" +
+                    "player_uuid " + uuidColumnType(conn, dialect) + " NOT NULL PRIMARY KEY, " +
+                    "player_name VARCHAR(16), " +
+                    "wins INTEGER NOT NULL DEFAULT 0, " +
+                    "total_spent DOUBLE NOT NULL DEFAULT 0, " +
+                    "highest_bid DOUBLE NOT NULL DEFAULT 0, " +
+                    "last_win TIMESTAMP NULL" +
+                    ")");
+            stmt.executeUpdate(PlayerStatsSql.CLEAR);
+            stmt.executeUpdate(PlayerStatsSql.REBUILD_FROM_HISTORY);
+        }
+    }
+
+    private static void addLeaderboardIndexes(Connection conn, StorageType dialect) throws SQLException {
+        createIndex(conn, dialect, "idx_stats_wins", "player_stats", "wins");
+        createIndex(conn, dialect, "idx_stats_spent", "player_stats", "total_spent");
+        createIndex(conn, dialect, "idx_stats_highest", "player_stats", "highest_bid");
+    }
+
+    private static void addHistoryPagingIndexes(Connection conn, StorageType dialect) throws SQLException {
+        createIndex(conn, dialect, "idx_history_time", "auction_history", "timestamp, id");
+        createIndex(conn, dialect, "idx_history_player_time", "auction_history", "player_uuid, timestamp, id");
+        // Both single-column indexes are prefixes of the new ones and only slow down inserts.
+        dropIndex(conn, dialect, "idx_history_timestamp", "auction_history");
+        dropIndex(conn, dialect, "idx_history_player", "auction_history");
+    }
+
+    private static void createRetentionTables(Connection conn, StorageType dialect) throws SQLException {
+        String uuidType = uuidColumnType(conn, dialect);
+        String itemType = dialect == StorageType.MYSQL ? "LONGBLOB" : "BLOB";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS auction_history_archive (" +
+                    "id INTEGER PRIMARY KEY, " +
+                    "player_name VARCHAR(16) NOT NULL, " +
+                    "player_uuid " + uuidType + " NOT NULL, " +
+                    "amount DOUBLE NOT NULL, " +
+                    "auction_type VARCHAR(16) NOT NULL, " +
+                    "reward TEXT NOT NULL, " +
+                    "timestamp TIMESTAMP NULL, " +
+                    "archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS auction_history_monthly (" +
+                    "month CHAR(7) NOT NULL, " +
+                    "auction_type VARCHAR(16) NOT NULL, " +
+                    "sales INTEGER NOT NULL, " +
+                    "total_amount DOUBLE NOT NULL, " +
+                    "highest_amount DOUBLE NOT NULL, " +
+                    "PRIMARY KEY (month, auction_type)" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS pending_rewards_archive (" +
+                    "id INTEGER PRIMARY KEY, " +
+                    "player_uuid " + uuidType + " NOT NULL, " +
+                    "item_data " + itemType + " NOT NULL, " +
+                    "reason TEXT, " +
+                    "timestamp TIMESTAMP NULL, " +
+                    "archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+        // Lets the retention job find expired rewards with a range scan.
+        createIndex(conn, dialect, "idx_rewards_time", "pending_rewards", "timestamp, id");
+    }
+
+    private static void createAuctionStateTable(Connection conn, StorageType dialect) throws SQLException {
+        String itemType = dialect == StorageType.MYSQL ? "LONGBLOB" : "BLOB";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS auctions (" +
+                    "id INTEGER PRIMARY KEY, " +
+                    "auction_type VARCHAR(16) NOT NULL, " +
+                    "status VARCHAR(16) NOT NULL, " +
+                    "item_data " + itemType + " NULL, " +
+                    "command TEXT NULL, " +
+                    "command_display_name VARCHAR(255) NULL, " +
+                    "custom_name VARCHAR(255) NULL, " +
+                    "start_price DOUBLE NOT NULL, " +
+                    "duration INTEGER NOT NULL, " +
+                    "owner_name VARCHAR(64) NULL, " +
+                    "owner_uuid VARCHAR(36) NULL, " +
+                    "current_bid DOUBLE NOT NULL, " +
+                    "bidder_uuid VARCHAR(36) NULL, " +
+                    "bidder_name VARCHAR(16) NULL, " +
+                    "end_time BIGINT NOT NULL, " +
+                    "bid_seq BIGINT NOT NULL, " +
+                    "started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+        // Startup only ever reads the open auctions.
+        createIndex(conn, dialect, "idx_auctions_status", "auctions", "status");
+    }
+
+    private static void createBidLedger(Connection conn, StorageType dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // seq is assigned by the plugin so entries keep the order they were recorded in.
+            stmt.execute("CREATE TABLE IF NOT EXISTS bid_ledger (" +
+                    "seq BIGINT PRIMARY KEY, " +
+                    "auction_id INTEGER NOT NULL, " +
+                    "entry_type VARCHAR(16) NOT NULL, " +
+                    "player_uuid " + uuidColumnType(conn, dialect) + " NOT NULL, " +
+                    "player_name VARCHAR(64), " +
+                    "amount DOUBLE NOT NULL, " +
+                    "note VARCHAR(255), " +
+                    "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+        createIndex(conn, dialect, "idx_ledger_auction", "bid_ledger", "auction_id, seq");
+        createIndex(conn, dialect, "idx_ledger_player", "bid_ledger", "player_uuid, seq");
+    }
+
+    /**
+     * Column type for a new player UUID column, matching the layout the existing tables use so
+     * the codec can read and write it the same way.
+     */
+    private static String uuidColumnType(Connection conn, StorageType dialect) throws SQLException {
+        if (dialect != StorageType.MYSQL) {
+            return "VARCHAR(36)";
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT meta_value FROM schema_meta WHERE meta_key = ?")) {
+            pstmt.setString(1, UUID_LAYOUT_KEY);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && UuidCodec.BINARY.layoutName().equals(rs.getString(1)) ? "BINARY(16)" : "VARCHAR(36)";
+            }
+        }
+    }
+
+    static void createIndex(Connection conn, StorageType dialect, String name, String table, String columns) throws SQLException {
+        if (dialect == StorageType.MYSQL) {
+            // MySQL has no CREATE INDEX IF NOT EXISTS.
+            String sql = "SELECT 1 FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, table);
+                pstmt.setString(2, name);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return;
+                    }
+                }
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+            }
+        } else {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + name + " ON " + table + " (" + columns + ")");
+            }
+        }
+    }
+
+    static void dropIndex(Connection conn, StorageType dialect, String name, String table) throws SQLException {
+        if (dialect == StorageType.MYSQL) {
+            String sql = "SELECT 1 FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, table);
+                pstmt.setString(2, name);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return;
+                    }
+                }
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP INDEX " + name + " ON " + table);
+            }
+        } else {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP INDEX IF EXISTS " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.djtmk.beeauction.data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Reads and writes player UUID columns in either the legacy 36 character text layout or the
+ * compact 16 byte binary layout. Reads accept both, so rows are decoded correctly while a
+ * layout conversion is in progress.
+ */
+public final class UuidCodec {
+    public static final UuidCodec TEXT = new UuidCodec(false);
+    public static final UuidCodec BINARY = new UuidCodec(true);
+
+    private final boolean binary;
+
+    private UuidCodec(boolean binary) {
+        this.binary = binary;
+    }
+
+    public static UuidCodec of(boolean binary) {
+        return binary ? BINARY : TEXT;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public String layoutName() {
+        return binary ? "binary" : "text";
+    }
+
+    public void bind(PreparedStatement pstmt, int index, UUID uuid) throws SQLException {
+        if (binary) {
+            pstmt.setBytes(index, toBytes(uuid));
+        } else {
+            pstmt.setString(index, uuid.toString());
+        }
+    }
+
+    public UUID read(ResultSet rs, String column) throws SQLException {
+        byte[] raw = rs.getBytes(column);
+        if (raw == null) {
+            return null;
+        }
+        if (raw.length == 16) {
+            return fromBytes(raw);
+        }
+        return UUID.fromString(new String(raw, StandardCharsets.US_ASCII));
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -1,15 +1,22 @@
 package org.djtmk.beeauction.economy;
 
 import org.djtmk.beeauction.economy.provider.MultiEconomyProvider;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
+import org.djtmk.beeauction.util.MonitoredExecutor;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 public class EconomyManager {
 
     private final EconomyProvider provider;
-    public EconomyManager() {
-        this.provider = new MultiEconomyProvider();
+    // Economy plugins often hit their own database, so these calls get their own bounded pool.
+    private final MonitoredExecutor executor;
+    public EconomyManager(int threads, int queueCapacity, MonitoredExecutor.Mode mode) {
+        this.executor = MonitoredExecutor.create("BeeAuction-Economy", threads, queueCapacity, mode);
+        this.provider = new MultiEconomyProvider(executor);
     }
     public boolean isAvailable() {
         return ((MultiEconomyProvider) provider).isAvailable();
@@ -25,10 +32,22 @@ public class EconomyManager {
         return provider.withdraw(player, amount);
     }
 
-    public CompletableFuture<Boolean> deposit(Player player, double amount) {
+    public CompletableFuture<Boolean> deposit(OfflinePlayer player, double amount) {
         return provider.deposit(player, amount);
     }
     public CompletableFuture<Double> getBalance(Player player) {
         return provider.getBalance(player);
     }
+
+    public MonitoredExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Waits for queued deposits, such as refunds issued while auctions are cancelled on
+     * shutdown, before the pool is stopped.
+     */
+    public void shutdown(Logger logger) {
+        executor.shutdownAndAwait(logger, 10, TimeUnit.SECONDS);
+    }
 }
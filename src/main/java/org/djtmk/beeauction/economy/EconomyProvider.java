@@ -1,5 +1,6 @@
 package org.djtmk.beeauction.economy;
 
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
 import java.util.concurrent.CompletableFuture;
@@ -12,7 +13,7 @@ public interface EconomyProvider {
 
     CompletableFuture<Boolean> withdraw(Player player, double amount);
 
-    CompletableFuture<Boolean> deposit(Player player, double amount);
+    CompletableFuture<Boolean> deposit(OfflinePlayer player, double amount);
 
     CompletableFuture<Double> getBalance(Player player);
 }
@@ -2,9 +2,11 @@ package org.djtmk.beeauction.economy.provider;
 
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.djtmk.beeauction.economy.EconomyProvider;
+import org.djtmk.beeauction.util.MonitoredExecutor;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
@@ -14,11 +16,11 @@ public class MultiEconomyProvider implements EconomyProvider {
     private static final Logger log = Logger.getLogger("Minecraft");
     private EconomyProvider activeProvider;
 
-    public MultiEconomyProvider() {
+    public MultiEconomyProvider(MonitoredExecutor executor) {
         if (Bukkit.getPluginManager().getPlugin("Vault") != null) {
             RegisteredServiceProvider<Economy> rsp = Bukkit.getServer().getServicesManager().getRegistration(Economy.class);
             if (rsp != null) {
-                activeProvider = new VaultProvider(rsp.getProvider());
+                activeProvider = new VaultProvider(rsp.getProvider(), executor);
                 log.info("[BeeAuction] Vault found, using as economy provider.");
                 return;
             }
@@ -44,7 +46,7 @@ public class MultiEconomyProvider implements EconomyProvider {
     }
 
     @Override
-    public CompletableFuture<Boolean> deposit(Player player, double amount) {
+    public CompletableFuture<Boolean> deposit(OfflinePlayer player, double amount) {
         if (activeProvider == null) return CompletableFuture.completedFuture(false);
         return activeProvider.deposit(player, amount);
     }
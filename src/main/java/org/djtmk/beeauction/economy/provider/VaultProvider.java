@@ -2,18 +2,20 @@ package org.djtmk.beeauction.economy.provider;
 
 import net.milkbowl.vault.economy.Economy;
 import net.milkbowl.vault.economy.EconomyResponse;
-import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.djtmk.beeauction.economy.EconomyProvider;
+import org.djtmk.beeauction.util.MonitoredExecutor;
 
 import java.util.concurrent.CompletableFuture;
 
 public class VaultProvider implements EconomyProvider {
 
     private final Economy economy;
-    public VaultProvider(Economy economy) {
+    private final MonitoredExecutor executor;
+    public VaultProvider(Economy economy, MonitoredExecutor executor) {
         this.economy = economy;
+        this.executor = executor;
     }
 
     @Override
@@ -23,12 +25,12 @@ public class VaultProvider implements EconomyProvider {
 
     @Override
     public CompletableFuture<Boolean> has(Player player, double amount) {
-        return CompletableFuture.supplyAsync(() -> economy.has(player, amount));
+        return executor.supply(() -> economy.has(player, amount));
     }
 
     @Override
     public CompletableFuture<Boolean> withdraw(Player player, double amount) {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.supply(() -> {
             EconomyResponse response = economy.withdrawPlayer(player, amount);
             if (!response.transactionSuccess()) {
                 economy.depositPlayer(player, amount);
@@ -39,16 +41,15 @@ public class VaultProvider implements EconomyProvider {
     }
 
     @Override
-    public CompletableFuture<Boolean> deposit(Player player, double amount) {
-        return CompletableFuture.supplyAsync(() -> {
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(player.getUniqueId());
-            EconomyResponse response = economy.depositPlayer(offlinePlayer, amount);
+    public CompletableFuture<Boolean> deposit(OfflinePlayer player, double amount) {
+        return executor.supply(() -> {
+            EconomyResponse response = economy.depositPlayer(player, amount);
             return response.transactionSuccess();
         });
     }
 
     @Override
     public CompletableFuture<Double> getBalance(Player player) {
-        return CompletableFuture.supplyAsync(() -> economy.getBalance(player));
+        return executor.supply(() -> economy.getBalance(player));
     }
 }
@@ -5,7 +5,11 @@ import org.bukkit.entity.Player;
 import org.djtmk.beeauction.BeeAuction;
 import org.djtmk.beeauction.api.BeeAuctionAPI;
 import org.djtmk.beeauction.auctions.Auction;
-import org.djtmk.beeauction.config.ConfigManager;
+import org.djtmk.beeauction.auctions.BidState;
+import org.djtmk.beeauction.config.PlaceholderMessages;
+import org.djtmk.beeauction.data.LeaderboardType;
+import org.djtmk.beeauction.data.PlayerStats;
+import org.djtmk.beeauction.util.MessageUtil;
 
 public class PlaceholderHook extends PlaceholderExpansion {
 
@@ -37,15 +41,16 @@ public class PlaceholderHook extends PlaceholderExpansion {
 
     @Override
     public String onPlaceholderRequest(Player player, String identifier) {
-        String activeTrue = ConfigManager.getMessage("placeholders.active-true");
-        String activeFalse = ConfigManager.getMessage("placeholders.active-false");
-        String noAuctionItem = ConfigManager.getMessage("placeholders.no-auction-item");
-        String noAuctionBid = ConfigManager.getMessage("placeholders.no-auction-bid");
-        String noAuctionBidder = ConfigManager.getMessage("placeholders.no-auction-bidder");
-        String noAuctionTime = ConfigManager.getMessage("placeholders.no-auction-time");
+        // Everything here is answered from memory: the message snapshot from the last reload,
+        // live auction state and the statistics cache. Nothing blocks on YAML or the database.
+        PlaceholderMessages messages = plugin.getConfigManager().getPlaceholderMessages();
 
         if (identifier.equals("active_listings") || identifier.equals("active")) {
-            return BeeAuctionAPI.hasActiveAuction() ? activeTrue : activeFalse;
+            return BeeAuctionAPI.hasActiveAuction() ? messages.activeTrue() : messages.activeFalse();
+        }
+
+        if (identifier.equals("active_count")) {
+            return String.valueOf(plugin.getAuctionManager().getActiveAuctionCount());
         }
 
         if (identifier.equals("auctions_won")) {
@@ -53,12 +58,19 @@ public class PlaceholderHook extends PlaceholderExpansion {
                 return "0";
             }
 
-            try {
-                return String.valueOf(plugin.getDatabaseManager().getAuctionsWonCount(player.getUniqueId()).join());
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to get auctions won count for " + player.getName());
-                return "0";
-            }
+            return String.valueOf(plugin.getPlayerStatsCache().getAuctionsWon(player.getUniqueId()));
+        }
+
+        if (identifier.equals("total_spent")) {
+            return player == null ? "0" : MessageUtil.formatPrice(plugin.getPlayerStatsCache().getStats(player.getUniqueId()).totalSpent());
+        }
+
+        if (identifier.equals("highest_win")) {
+            return player == null ? "0" : MessageUtil.formatPrice(plugin.getPlayerStatsCache().getStats(player.getUniqueId()).highestBid());
+        }
+
+        if (identifier.startsWith("top_")) {
+            return leaderboardPlaceholder(identifier, messages);
         }
 
         Auction auction = BeeAuctionAPI.getActiveAuction();
@@ -66,36 +78,72 @@ public class PlaceholderHook extends PlaceholderExpansion {
             switch (identifier) {
                 case "highest_bid":
                 case "current_bid":
-                    return noAuctionBid;
+                    return messages.noAuctionBid();
                 case "highest_bidder":
                 case "bidder":
-                    return noAuctionBidder;
+                    return messages.noAuctionBidder();
                 case "item_name":
                 case "item":
-                    return noAuctionItem;
+                    return messages.noAuctionItem();
                 case "time_remaining":
                 case "time_left":
-                    return noAuctionTime;
+                    return messages.noAuctionTime();
                 default:
                     return null;
             }
         }
 
+        BidState snapshot = auction.getState();
         switch (identifier) {
             case "highest_bid":
             case "current_bid":
-                return String.valueOf(auction.getCurrentBid());
+                return String.valueOf(snapshot.amount());
             case "highest_bidder":
             case "bidder":
-                return auction.getHighestBidder() != null ? auction.getHighestBidder().getName() : "None";
+                return snapshot.hasBidder() ? snapshot.bidderName() : "None";
             case "item_name":
             case "item":
                 return auction.getRewardName();
             case "time_remaining":
             case "time_left":
-                return String.valueOf(auction.getTimeRemaining());
+                return String.valueOf(snapshot.secondsRemaining(System.currentTimeMillis()));
             default:
                 return null;
         }
     }
+
+    /**
+     * Resolves top_<board>_<rank> (the player's name) and top_<board>_<rank>_<value>, e.g.
+     * top_spender_1 and top_spender_1_amount.
+     */
+    private String leaderboardPlaceholder(String identifier, PlaceholderMessages messages) {
+        for (LeaderboardType type : LeaderboardType.values()) {
+            String prefix = "top_" + type.key() + "_";
+            if (!identifier.startsWith(prefix)) {
+                continue;
+            }
+            String rest = identifier.substring(prefix.length());
+            boolean value = false;
+            int separator = rest.indexOf('_');
+            if (separator >= 0) {
+                if (!rest.substring(separator + 1).equals(type.valueSuffix())) {
+                    return null;
+                }
+                rest = rest.substring(0, separator);
+                value = true;
+            }
+            int rank;
+            try {
+                rank = Integer.parseInt(rest);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            PlayerStats entry = plugin.getLeaderboardService().get(type, rank);
+            if (entry == null) {
+                return messages.leaderboardEmpty();
+            }
+            return value ? type.formatValue(entry) : entry.playerName();
+        }
+        return null;
+    }
 }
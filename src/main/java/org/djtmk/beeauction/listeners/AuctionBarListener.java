@@ -0,0 +1,26 @@
+package org.djtmk.beeauction.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.djtmk.beeauction.BeeAuction;
+
+public class AuctionBarListener implements Listener {
+    private final BeeAuction plugin;
+
+    public AuctionBarListener(BeeAuction plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        plugin.getAuctionManager().getBarRenderer().addViewer(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getAuctionManager().getBarRenderer().removeViewer(event.getPlayer());
+    }
+}
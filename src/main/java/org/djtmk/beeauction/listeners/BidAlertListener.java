@@ -0,0 +1,26 @@
+package org.djtmk.beeauction.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.djtmk.beeauction.BeeAuction;
+
+public class BidAlertListener implements Listener {
+    private final BeeAuction plugin;
+
+    public BidAlertListener(BeeAuction plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        plugin.getAuctionManager().getBidBroadcaster().addPlayer(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getAuctionManager().getBidBroadcaster().removePlayer(event.getPlayer());
+    }
+}
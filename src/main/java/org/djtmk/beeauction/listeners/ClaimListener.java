@@ -19,7 +19,12 @@ public class ClaimListener implements Listener {
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> {
+        // The lookup itself runs on the database executor, so only the delay needs the scheduler
+        // and no Bukkit async worker is tied up for it.
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (!player.isOnline()) {
+                return;
+            }
             plugin.getDatabaseManager().hasPendingRewards(player.getUniqueId()).thenAccept(hasRewards -> {
                 if (hasRewards) {
                     MessageUtil.sendMessage(player, MessageEnum.CLAIM_JOIN_NOTIFICATION.get());
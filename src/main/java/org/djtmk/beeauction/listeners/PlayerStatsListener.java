@@ -0,0 +1,27 @@
+package org.djtmk.beeauction.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.djtmk.beeauction.BeeAuction;
+
+public class PlayerStatsListener implements Listener {
+    private final BeeAuction plugin;
+
+    public PlayerStatsListener(BeeAuction plugin) {
+        this.plugin = plugin;
+    }
+
+    // Loads statistics ahead of the first scoreboard refresh so it does not show a default.
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        plugin.getPlayerStatsCache().refresh(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getPlayerStatsCache().invalidate(event.getPlayer().getUniqueId());
+    }
+}
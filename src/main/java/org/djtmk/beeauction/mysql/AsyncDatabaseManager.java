@@ -2,10 +2,25 @@ package org.djtmk.beeauction.mysql;
 
 import org.bukkit.inventory.ItemStack;
 import org.djtmk.beeauction.data.AuctionHistoryEntry;
+import org.djtmk.beeauction.data.AuctionResultRecord;
+import org.djtmk.beeauction.data.AuctionStateRecord;
+import org.djtmk.beeauction.data.HistoryPage;
+import org.djtmk.beeauction.data.HistoryQuery;
+import org.djtmk.beeauction.data.ItemReencodeBatch;
+import org.djtmk.beeauction.data.LeaderboardType;
+import org.djtmk.beeauction.data.LedgerEntry;
+import org.djtmk.beeauction.data.LedgerQuery;
+import org.djtmk.beeauction.data.PendingRewardMeta;
+import org.djtmk.beeauction.data.PendingRewardRecord;
+import org.djtmk.beeauction.data.PlayerStats;
+import org.djtmk.beeauction.data.RetentionMode;
+import org.djtmk.beeauction.util.MonitoredExecutor;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface AsyncDatabaseManager {
 
@@ -13,15 +28,123 @@ public interface AsyncDatabaseManager {
 
     void shutdown();
 
+    /**
+     * The executors this backend runs its blocking work on, for status reporting.
+     */
+    default List<MonitoredExecutor> getExecutors() {
+        return List.of();
+    }
+
     CompletableFuture<Void> saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward);
 
     CompletableFuture<List<AuctionHistoryEntry>> getAuctionHistory();
 
+    /**
+     * Reads one page of history matching the query, newest first. Continue with
+     * {@link HistoryQuery#next(HistoryPage)}; each page costs the same regardless of depth.
+     */
+    CompletableFuture<HistoryPage> queryHistory(HistoryQuery query);
+
     CompletableFuture<Void> addPendingReward(UUID playerUuid, ItemStack item, String reason);
 
+    /**
+     * Writes all given rows in one transaction. Unlike the single-row writes, failures are not
+     * swallowed: the returned future completes exceptionally and nothing is committed.
+     */
+    CompletableFuture<Void> writeBatch(List<AuctionResultRecord> results, List<PendingRewardRecord> rewards);
+
+    /**
+     * Rewrites up to {@code limit} pending rewards after {@code afterId} that are still stored
+     * in the legacy item format.
+     */
+    CompletableFuture<ItemReencodeBatch> reencodeItems(long afterId, int limit);
+
     CompletableFuture<List<ItemStack>> getAndRemovePendingRewards(UUID playerUuid);
 
     CompletableFuture<Boolean> hasPendingRewards(UUID playerUuid);
 
+    /**
+     * Streams every UUID that has at least one pending reward to the consumer, on a database
+     * thread. Completes with the number of UUIDs seen.
+     */
+    CompletableFuture<Integer> loadPendingRewardOwners(Consumer<UUID> consumer);
+
+    /**
+     * Streams every auction_history row to the consumer in id order, on a database thread,
+     * without materializing the table. Completes with the number of rows seen.
+     */
+    CompletableFuture<Long> streamHistory(Consumer<AuctionHistoryEntry> consumer);
+
+    /**
+     * Like {@link #streamHistory(Consumer)} for pending_rewards, without the item payloads.
+     */
+    CompletableFuture<Long> streamPendingRewardMeta(Consumer<PendingRewardMeta> consumer);
+
+    /**
+     * Removes one batch of auction_history rows older than {@code cutoff}, handling them as
+     * {@code mode} says. Completes with the number of rows removed.
+     */
+    CompletableFuture<Integer> purgeHistory(Timestamp cutoff, RetentionMode mode, int limit);
+
+    /**
+     * Moves one batch of pending rewards older than {@code cutoff} to pending_rewards_archive.
+     */
+    CompletableFuture<Integer> archivePendingRewards(Timestamp cutoff, int limit);
+
+    /**
+     * Runs one bounded compaction step. Completes with the free pages still to release, 0 when
+     * there is nothing more to do.
+     */
+    CompletableFuture<Long> compact(int pages);
+
+    /**
+     * Writes the given auction states in one transaction, replacing the stored bid state of
+     * auctions that already have a row. Failures complete the future exceptionally.
+     */
+    CompletableFuture<Void> saveAuctionStates(List<AuctionStateRecord> states);
+
+    /**
+     * Reads every auction that was not settled, oldest first.
+     */
+    CompletableFuture<List<AuctionStateRecord>> loadOpenAuctions();
+
+    /**
+     * Completes with the highest auction id ever stored, 0 if there is none.
+     */
+    CompletableFuture<Integer> getMaxAuctionId();
+
+    /**
+     * Inserts bid ledger rows in one transaction. Failures complete the future exceptionally.
+     */
+    CompletableFuture<Void> appendLedgerEntries(List<LedgerEntry> entries);
+
+    /**
+     * Reads bid ledger rows for one auction or player, newest first.
+     */
+    CompletableFuture<List<LedgerEntry>> queryLedger(LedgerQuery query);
+
+    /**
+     * Completes with the highest ledger sequence number stored, 0 if the ledger is empty.
+     */
+    CompletableFuture<Long> getMaxLedgerSeq();
+
     CompletableFuture<Integer> getAuctionsWonCount(UUID playerUuid);
+
+    /**
+     * Reads the player's row from the player_stats aggregate. Players without a win get
+     * {@link PlayerStats#empty(UUID)}.
+     */
+    CompletableFuture<PlayerStats> getPlayerStats(UUID playerUuid);
+
+    /**
+     * Reads the first {@code limit} players of a ranking, best first. Players scoring zero are
+     * left out.
+     */
+    CompletableFuture<List<PlayerStats>> getTopPlayerStats(LeaderboardType type, int limit);
+
+    /**
+     * Recomputes player_stats from auction_history in one transaction. Completes with the
+     * number of players written.
+     */
+    CompletableFuture<Integer> rebuildPlayerStats();
 }
@@ -14,10 +14,19 @@ public class DatabaseManagerFactory {
 
     public AsyncDatabaseManager createDatabaseManager() {
         String databaseType = plugin.getConfig().getString("database.type", "sqlite");
+        AsyncDatabaseManager manager;
         if (databaseType.equalsIgnoreCase("mysql")) {
-            return new MySQLManager(plugin);
+            manager = new MySQLManager(plugin);
         } else {
-            return new SQLiteManager(plugin);
+            manager = new SQLiteManager(plugin);
         }
+        if (plugin.getConfig().getBoolean("database.write-behind.enabled", true)) {
+            manager = new WriteBehindDatabaseManager(plugin, manager);
+        }
+        // Outermost, so join checks answered from memory skip the write-behind flush as well.
+        if (plugin.getConfig().getBoolean("database.pending-reward-index.enabled", true)) {
+            manager = new PendingRewardIndexDatabaseManager(plugin, manager);
+        }
+        return manager;
     }
 }
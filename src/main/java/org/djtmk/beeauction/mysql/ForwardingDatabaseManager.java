@@ -0,0 +1,190 @@
+package org.djtmk.beeauction.mysql;
+
+import org.bukkit.inventory.ItemStack;
+import org.djtmk.beeauction.data.AuctionHistoryEntry;
+import org.djtmk.beeauction.data.AuctionResultRecord;
+import org.djtmk.beeauction.data.AuctionStateRecord;
+import org.djtmk.beeauction.data.HistoryPage;
+import org.djtmk.beeauction.data.HistoryQuery;
+import org.djtmk.beeauction.data.ItemReencodeBatch;
+import org.djtmk.beeauction.data.LeaderboardType;
+import org.djtmk.beeauction.data.LedgerEntry;
+import org.djtmk.beeauction.data.LedgerQuery;
+import org.djtmk.beeauction.data.PendingRewardMeta;
+import org.djtmk.beeauction.data.PendingRewardRecord;
+import org.djtmk.beeauction.data.PlayerStats;
+import org.djtmk.beeauction.data.RetentionMode;
+import org.djtmk.beeauction.util.MonitoredExecutor;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Base for decorators around a database backend. Every call is passed straight to the
+ * delegate; subclasses override only what they change.
+ */
+public abstract class ForwardingDatabaseManager implements AsyncDatabaseManager {
+
+    protected final AsyncDatabaseManager delegate;
+
+    protected ForwardingDatabaseManager(AsyncDatabaseManager delegate) {
+        this.delegate = delegate;
+    }
+
+    public AsyncDatabaseManager getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Finds the decorator or backend of the given type in a chain of forwarding managers, or
+     * null if it is not part of the chain.
+     */
+    public static <T extends AsyncDatabaseManager> T unwrap(AsyncDatabaseManager manager, Class<T> type) {
+        AsyncDatabaseManager current = manager;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            current = current instanceof ForwardingDatabaseManager forwarding ? forwarding.getDelegate() : null;
+        }
+        return null;
+    }
+
+    @Override
+    public void initialize() {
+        delegate.initialize();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<MonitoredExecutor> getExecutors() {
+        return delegate.getExecutors();
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward) {
+        return delegate.saveAuctionResult(playerName, playerUuid, amount, auctionType, reward);
+    }
+
+    @Override
+    public CompletableFuture<List<AuctionHistoryEntry>> getAuctionHistory() {
+        return delegate.getAuctionHistory();
+    }
+
+    @Override
+    public CompletableFuture<HistoryPage> queryHistory(HistoryQuery query) {
+        return delegate.queryHistory(query);
+    }
+
+    @Override
+    public CompletableFuture<Void> addPendingReward(UUID playerUuid, ItemStack item, String reason) {
+        return delegate.addPendingReward(playerUuid, item, reason);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeBatch(List<AuctionResultRecord> results, List<PendingRewardRecord> rewards) {
+        return delegate.writeBatch(results, rewards);
+    }
+
+    @Override
+    public CompletableFuture<ItemReencodeBatch> reencodeItems(long afterId, int limit) {
+        return delegate.reencodeItems(afterId, limit);
+    }
+
+    @Override
+    public CompletableFuture<List<ItemStack>> getAndRemovePendingRewards(UUID playerUuid) {
+        return delegate.getAndRemovePendingRewards(playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasPendingRewards(UUID playerUuid) {
+        return delegate.hasPendingRewards(playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Integer> loadPendingRewardOwners(Consumer<UUID> consumer) {
+        return delegate.loadPendingRewardOwners(consumer);
+    }
+
+    @Override
+    public CompletableFuture<Long> streamHistory(Consumer<AuctionHistoryEntry> consumer) {
+        return delegate.streamHistory(consumer);
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPendingRewardMeta(Consumer<PendingRewardMeta> consumer) {
+        return delegate.streamPendingRewardMeta(consumer);
+    }
+
+    @Override
+    public CompletableFuture<Integer> purgeHistory(Timestamp cutoff, RetentionMode mode, int limit) {
+        return delegate.purgeHistory(cutoff, mode, limit);
+    }
+
+    @Override
+    public CompletableFuture<Integer> archivePendingRewards(Timestamp cutoff, int limit) {
+        return delegate.archivePendingRewards(cutoff, limit);
+    }
+
+    @Override
+    public CompletableFuture<Long> compact(int pages) {
+        return delegate.compact(pages);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAuctionStates(List<AuctionStateRecord> states) {
+        return delegate.saveAuctionStates(states);
+    }
+
+    @Override
+    public CompletableFuture<List<AuctionStateRecord>> loadOpenAuctions() {
+        return delegate.loadOpenAuctions();
+    }
+
+    @Override
+    public CompletableFuture<Integer> getMaxAuctionId() {
+        return delegate.getMaxAuctionId();
+    }
+
+    @Override
+    public CompletableFuture<Void> appendLedgerEntries(List<LedgerEntry> entries) {
+        return delegate.appendLedgerEntries(entries);
+    }
+
+    @Override
+    public CompletableFuture<List<LedgerEntry>> queryLedger(LedgerQuery query) {
+        return delegate.queryLedger(query);
+    }
+
+    @Override
+    public CompletableFuture<Long> getMaxLedgerSeq() {
+        return delegate.getMaxLedgerSeq();
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAuctionsWonCount(UUID playerUuid) {
+        return delegate.getAuctionsWonCount(playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<PlayerStats> getPlayerStats(UUID playerUuid) {
+        return delegate.getPlayerStats(playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerStats>> getTopPlayerStats(LeaderboardType type, int limit) {
+        return delegate.getTopPlayerStats(type, limit);
+    }
+
+    @Override
+    public CompletableFuture<Integer> rebuildPlayerStats() {
+        return delegate.rebuildPlayerStats();
+    }
+}
@@ -0,0 +1,134 @@
+package org.djtmk.beeauction.mysql;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import org.bukkit.inventory.ItemStack;
+import org.djtmk.beeauction.BeeAuction;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Keeps an in-memory index of players that may have unclaimed rewards, loaded once at startup.
+ * A miss answers {@link #hasPendingRewards} without touching the database, which is the
+ * common case on join. A hit is confirmed against the database, so the index only has to be
+ * conservative: it may claim too much, never too little.
+ *
+ * <p>The "exact" index is a set of UUIDs that shrinks again when rewards are claimed. The
+ * "bloom" index is a Bloom filter for very large tables. It uses a fixed amount of memory
+ * but cannot forget a player until the next restart.
+ */
+public class PendingRewardIndexDatabaseManager extends ForwardingDatabaseManager {
+
+    private static final Funnel<UUID> UUID_FUNNEL = (uuid, sink) -> sink
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits());
+
+    private final BeeAuction plugin;
+    private final Set<UUID> exactIndex;
+    private final BloomFilter<UUID> bloomIndex;
+    private volatile boolean loaded;
+
+    private final LongAdder answeredFromMemory = new LongAdder();
+    private final LongAdder confirmedByDatabase = new LongAdder();
+
+    public PendingRewardIndexDatabaseManager(BeeAuction plugin, AsyncDatabaseManager delegate) {
+        super(delegate);
+        this.plugin = plugin;
+        if ("bloom".equalsIgnoreCase(plugin.getConfig().getString("database.pending-reward-index.type", "exact"))) {
+            this.exactIndex = null;
+            this.bloomIndex = BloomFilter.create(UUID_FUNNEL,
+                    Math.max(1000, plugin.getConfig().getLong("database.pending-reward-index.bloom-expected-players", 100000)),
+                    Math.min(0.5, Math.max(0.0001, plugin.getConfig().getDouble("database.pending-reward-index.bloom-false-positive-rate", 0.01))));
+        } else {
+            this.exactIndex = ConcurrentHashMap.newKeySet();
+            this.bloomIndex = null;
+        }
+    }
+
+    @Override
+    public void initialize() {
+        delegate.initialize();
+        delegate.loadPendingRewardOwners(this::mark).whenComplete((count, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Could not load the pending reward index, join checks will query the database", error);
+                return;
+            }
+            loaded = true;
+            plugin.getLogger().info("Loaded pending reward index (" + getType() + ", " + count + " player(s)).");
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addPendingReward(UUID playerUuid, ItemStack item, String reason) {
+        mark(playerUuid);
+        // Marked again once committed, in case a claim running at the same time unmarked it.
+        return delegate.addPendingReward(playerUuid, item, reason).whenComplete((v, error) -> mark(playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<List<ItemStack>> getAndRemovePendingRewards(UUID playerUuid) {
+        // Unmarked before the claim runs: a reward committed after the claim's read marks the
+        // player again, so the index never misses it.
+        unmark(playerUuid);
+        return delegate.getAndRemovePendingRewards(playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasPendingRewards(UUID playerUuid) {
+        if (loaded && !mightHave(playerUuid)) {
+            answeredFromMemory.increment();
+            return CompletableFuture.completedFuture(false);
+        }
+        confirmedByDatabase.increment();
+        return delegate.hasPendingRewards(playerUuid).thenApply(hasRewards -> {
+            if (!hasRewards && loaded) {
+                unmark(playerUuid);
+            }
+            return hasRewards;
+        });
+    }
+
+    private void mark(UUID playerUuid) {
+        if (exactIndex != null) {
+            exactIndex.add(playerUuid);
+        } else {
+            bloomIndex.put(playerUuid);
+        }
+    }
+
+    private void unmark(UUID playerUuid) {
+        if (exactIndex != null) {
+            exactIndex.remove(playerUuid);
+        }
+    }
+
+    private boolean mightHave(UUID playerUuid) {
+        return exactIndex != null ? exactIndex.contains(playerUuid) : bloomIndex.mightContain(playerUuid);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public String getType() {
+        return exactIndex != null ? "exact" : "bloom";
+    }
+
+    public long getIndexedCount() {
+        return exactIndex != null ? exactIndex.size() : bloomIndex.approximateElementCount();
+    }
+
+    public long getAnsweredFromMemory() {
+        return answeredFromMemory.sum();
+    }
+
+    public long getConfirmedByDatabase() {
+        return confirmedByDatabase.sum();
+    }
+}
@@ -0,0 +1,272 @@
+package org.djtmk.beeauction.mysql;
+
+import org.bukkit.inventory.ItemStack;
+import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.data.AuctionHistoryEntry;
+import org.djtmk.beeauction.data.AuctionResultRecord;
+import org.djtmk.beeauction.data.HistoryPage;
+import org.djtmk.beeauction.data.HistoryQuery;
+import org.djtmk.beeauction.data.LeaderboardType;
+import org.djtmk.beeauction.data.PendingRewardMeta;
+import org.djtmk.beeauction.data.PendingRewardRecord;
+import org.djtmk.beeauction.data.PlayerStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Queues auction results and pending rewards and writes them to the backend in batches, one
+ * transaction per batch. A batch is flushed when the flush window elapses or the queue reaches
+ * the batch size, whichever comes first. Reads flush outstanding writes before they run, so
+ * callers always see their own writes, and {@link #shutdown()} drains the queue before the
+ * backend is closed.
+ */
+public class WriteBehindDatabaseManager extends ForwardingDatabaseManager {
+
+    private record QueuedWrite(AuctionResultRecord result, PendingRewardRecord reward, CompletableFuture<Void> future) {
+    }
+
+    private final BeeAuction plugin;
+    private final long flushWindowMillis;
+    private final int batchSize;
+    private final BlockingQueue<QueuedWrite> queue;
+    private final ScheduledExecutorService flusher;
+    // Queued plus in-flight writes; reads only need to wait for a flush when this is non-zero.
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedWrites = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    public WriteBehindDatabaseManager(BeeAuction plugin, AsyncDatabaseManager delegate) {
+        super(delegate);
+        this.plugin = plugin;
+        this.flushWindowMillis = Math.max(10L, plugin.getConfig().getLong("database.write-behind.flush-window-ms", 250));
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("database.write-behind.batch-size", 100));
+        this.queue = new LinkedBlockingQueue<>(Math.max(batchSize, plugin.getConfig().getInt("database.write-behind.max-queue-size", 10000)));
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "BeeAuction-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void initialize() {
+        delegate.initialize();
+        flusher.scheduleWithFixedDelay(this::flushQueued, flushWindowMillis, flushWindowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        closed = true;
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Write-behind flusher did not terminate in time, flushing on the shutdown thread");
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Whatever is still queued is written here, before the backend closes.
+        while (!queue.isEmpty()) {
+            flushQueued();
+        }
+        delegate.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward) {
+        return enqueue(new QueuedWrite(new AuctionResultRecord(playerName, playerUuid, amount, auctionType, reward), null, new CompletableFuture<>()));
+    }
+
+    @Override
+    public CompletableFuture<Void> addPendingReward(UUID playerUuid, ItemStack item, String reason) {
+        // Cloned so later changes to the caller's stack cannot leak into the queued write.
+        return enqueue(new QueuedWrite(null, new PendingRewardRecord(playerUuid, item.clone(), reason), new CompletableFuture<>()));
+    }
+
+    @Override
+    public CompletableFuture<List<AuctionHistoryEntry>> getAuctionHistory() {
+        return flush().thenCompose(v -> delegate.getAuctionHistory());
+    }
+
+    @Override
+    public CompletableFuture<HistoryPage> queryHistory(HistoryQuery query) {
+        return flush().thenCompose(v -> delegate.queryHistory(query));
+    }
+
+    @Override
+    public CompletableFuture<List<ItemStack>> getAndRemovePendingRewards(UUID playerUuid) {
+        return flush().thenCompose(v -> delegate.getAndRemovePendingRewards(playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasPendingRewards(UUID playerUuid) {
+        return flush().thenCompose(v -> delegate.hasPendingRewards(playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAuctionsWonCount(UUID playerUuid) {
+        return flush().thenCompose(v -> delegate.getAuctionsWonCount(playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Long> streamHistory(Consumer<AuctionHistoryEntry> consumer) {
+        return flush().thenCompose(v -> delegate.streamHistory(consumer));
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPendingRewardMeta(Consumer<PendingRewardMeta> consumer) {
+        return flush().thenCompose(v -> delegate.streamPendingRewardMeta(consumer));
+    }
+
+    @Override
+    public CompletableFuture<PlayerStats> getPlayerStats(UUID playerUuid) {
+        return flush().thenCompose(v -> delegate.getPlayerStats(playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerStats>> getTopPlayerStats(LeaderboardType type, int limit) {
+        return flush().thenCompose(v -> delegate.getTopPlayerStats(type, limit));
+    }
+
+    @Override
+    public CompletableFuture<Integer> rebuildPlayerStats() {
+        return flush().thenCompose(v -> delegate.rebuildPlayerStats());
+    }
+
+    /**
+     * Completes once every write queued before this call has been committed.
+     */
+    public CompletableFuture<Void> flush() {
+        if (pendingWrites.get() == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.runAsync(this::flushQueued, flusher);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(QueuedWrite write) {
+        pendingWrites.incrementAndGet();
+        if (closed || !queue.offer(write)) {
+            // Queue full or shutting down: fall back to a direct write rather than block the caller.
+            pendingWrites.decrementAndGet();
+            return writeDirect(write);
+        }
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQueued);
+            } catch (RejectedExecutionException ignored) {
+                // Shutdown drains the queue itself.
+            }
+        }
+        return write.future();
+    }
+
+    private void flushQueued() {
+        flushRequested.set(false);
+        List<QueuedWrite> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<QueuedWrite> batch) {
+        List<AuctionResultRecord> results = new ArrayList<>();
+        List<PendingRewardRecord> rewards = new ArrayList<>();
+        for (QueuedWrite write : batch) {
+            if (write.result() != null) {
+                results.add(write.result());
+            } else {
+                rewards.add(write.reward());
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            delegate.writeBatch(results, rewards).join();
+            batch.forEach(write -> write.future().complete(null));
+        } catch (CompletionException e) {
+            // One bad row must not cost the rest of the batch, so retry them one by one.
+            plugin.getLogger().log(Level.WARNING, "Batched write of " + batch.size() + " rows failed, retrying individually", e.getCause());
+            for (QueuedWrite write : batch) {
+                try {
+                    writeDirect(write).join();
+                } catch (CompletionException ignored) {
+                    // Already logged by the backend and reported through the write's future.
+                }
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lastFlushNanos = elapsed;
+            totalFlushNanos.addAndGet(elapsed);
+            flushCount.incrementAndGet();
+            flushedWrites.addAndGet(batch.size());
+            pendingWrites.addAndGet(-batch.size());
+        }
+    }
+
+    private CompletableFuture<Void> writeDirect(QueuedWrite write) {
+        CompletableFuture<Void> direct;
+        if (write.result() != null) {
+            AuctionResultRecord result = write.result();
+            direct = delegate.saveAuctionResult(result.playerName(), result.playerUuid(), result.amount(), result.auctionType(), result.reward());
+        } else {
+            PendingRewardRecord reward = write.reward();
+            direct = delegate.addPendingReward(reward.playerUuid(), reward.item(), reward.reason());
+        }
+        direct.whenComplete((v, error) -> {
+            if (error != null) {
+                write.future().completeExceptionally(error);
+            } else {
+                write.future().complete(null);
+            }
+        });
+        return write.future();
+    }
+
+    public int getQueueDepth() {
+        return pendingWrites.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getFlushedWrites() {
+        return flushedWrites.get();
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushCount.get();
+        return count == 0 ? 0 : totalFlushNanos.get() / 1_000_000.0 / count;
+    }
+}
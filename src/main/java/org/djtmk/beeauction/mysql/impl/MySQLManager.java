@@ -3,8 +3,31 @@ package org.djtmk.beeauction.mysql.impl;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+import org.djtmk.beeauction.data.AuctionHistoryEntry;
+import org.djtmk.beeauction.data.AuctionResultRecord;
+import org.djtmk.beeauction.data.AuctionStateRecord;
+import org.djtmk.beeauction.data.AuctionStateSql;
+import org.djtmk.beeauction.data.ExportSql;
+import org.djtmk.beeauction.data.HistoryPage;
+import org.djtmk.beeauction.data.HistoryQuery;
+import org.djtmk.beeauction.data.HistoryQuerySql;
+import org.djtmk.beeauction.data.ItemCodec;
+import org.djtmk.beeauction.data.ItemReencodeBatch;
+import org.djtmk.beeauction.data.LeaderboardType;
+import org.djtmk.beeauction.data.LedgerEntry;
+import org.djtmk.beeauction.data.LedgerQuery;
+import org.djtmk.beeauction.data.LedgerSql;
+import org.djtmk.beeauction.data.PendingRewardMeta;
+import org.djtmk.beeauction.data.PendingRewardRecord;
+import org.djtmk.beeauction.data.PlayerStats;
+import org.djtmk.beeauction.data.PlayerStatsSql;
+import org.djtmk.beeauction.data.RetentionMode;
+import org.djtmk.beeauction.data.RetentionSql;
+import org.djtmk.beeauction.data.SchemaMigrator;
+import org.djtmk.beeauction.data.UuidCodec;
 import org.djtmk.beeauction.mysql.AsyncDatabaseManager;
-import org.djtmk.beeauction.util.ItemUtils;
+import org.djtmk.beeauction.util.MonitoredExecutor;
 import org.bukkit.inventory.ItemStack;
 
 import java.io.IOException;
@@ -13,15 +36,24 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 public class MySQLManager implements AsyncDatabaseManager {
 
     private final BeeAuction plugin;
     private HikariDataSource dataSource;
+    // Sized to the connection pool, so queued work waits here rather than inside Hikari.
+    private MonitoredExecutor executor;
+    private volatile UuidCodec uuidCodec = UuidCodec.TEXT;
+    private final ItemCodec itemCodec;
 
     public MySQLManager(BeeAuction plugin) {
         this.plugin = plugin;
+        this.itemCodec = ItemCodec.of(plugin.getConfig().getString("database.items.format", "binary"),
+                plugin.getConfig().getBoolean("database.items.compress", true));
     }
 
     @Override
@@ -30,45 +62,49 @@ public class MySQLManager implements AsyncDatabaseManager {
         config.setJdbcUrl("jdbc:mysql://" + plugin.getConfig().getString("database.host") + ":" + plugin.getConfig().getInt("database.port") + "/" + plugin.getConfig().getString("database.database"));
         config.setUsername(plugin.getConfig().getString("database.username"));
         config.setPassword(plugin.getConfig().getString("database.password"));
+        config.setPoolName("BeeAuction-Hikari");
+        config.setMaximumPoolSize(Math.max(1, plugin.getConfig().getInt("database.pool.maximum-pool-size", 10)));
+        config.setMinimumIdle(Math.max(0, plugin.getConfig().getInt("database.pool.minimum-idle", 2)));
+        config.setConnectionTimeout(plugin.getConfig().getLong("database.pool.connection-timeout-ms", 30000));
+        config.setIdleTimeout(plugin.getConfig().getLong("database.pool.idle-timeout-ms", 600000));
+        config.setMaxLifetime(plugin.getConfig().getLong("database.pool.max-lifetime-ms", 1800000));
+        config.setLeakDetectionThreshold(plugin.getConfig().getLong("database.pool.leak-detection-threshold-ms", 0));
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        // Lets the driver send write-behind batches as multi-row INSERTs.
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
 
         dataSource = new HikariDataSource(config);
+        executor = MonitoredExecutor.create("BeeAuction-MySQL", config.getMaximumPoolSize(),
+                plugin.getConfig().getInt("database.executor.queue-capacity", 1000), plugin.getExecutorMode());
         createTables();
     }
 
     @Override
     public void shutdown() {
+        if (executor != null) {
+            executor.shutdownAndAwait(plugin.getLogger(), 10, TimeUnit.SECONDS);
+        }
         if (dataSource != null) {
             dataSource.close();
         }
     }
 
+    @Override
+    public List<MonitoredExecutor> getExecutors() {
+        return executor == null ? List.of() : List.of(executor);
+    }
+
     private Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
 
     private void createTables() {
-        String historyTable = "CREATE TABLE IF NOT EXISTS auction_history (" +
-                "id INTEGER PRIMARY KEY AUTO_INCREMENT, " +
-                "player_name VARCHAR(16) NOT NULL, " +
-                "player_uuid VARCHAR(36) NOT NULL, " +
-                "amount DOUBLE NOT NULL, " +
-                "auction_type VARCHAR(16) NOT NULL, " +
-                "reward TEXT NOT NULL, " +
-                "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ");";
-        String rewardsTable = "CREATE TABLE IF NOT EXISTS pending_rewards (" +
-                "id INTEGER PRIMARY KEY AUTO_INCREMENT, " +
-                "player_uuid VARCHAR(36) NOT NULL, " +
-                "item_data TEXT NOT NULL, " +
-                "reason TEXT, " +
-                "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ");";
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-            stmt.execute(historyTable);
-            stmt.execute(rewardsTable);
+        try (Connection conn = getConnection()) {
+            SchemaMigrator migrator = new SchemaMigrator(plugin.getLogger(), StorageType.MYSQL);
+            migrator.migrate(conn);
+            uuidCodec = migrator.migrateUuidLayout(conn, plugin.getConfig().getBoolean("database.compact-uuids", false));
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to create database tables", e);
         }
@@ -76,69 +112,120 @@ public class MySQLManager implements AsyncDatabaseManager {
 
     @Override
     public CompletableFuture<Void> saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "INSERT INTO auction_history(player_name, player_uuid, amount, auction_type, reward) VALUES(?,?,?,?,?)";
-            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, playerName);
-                pstmt.setString(2, playerUuid.toString());
-                pstmt.setDouble(3, amount);
-                pstmt.setString(4, auctionType);
-                pstmt.setString(5, reward);
-                pstmt.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to save auction result", e);
-            }
-        });
+        // Goes through writeBatch so the history row and the player_stats upsert share a transaction.
+        return writeBatch(List.of(new AuctionResultRecord(playerName, playerUuid, amount, auctionType, reward)), List.of())
+                .whenComplete((v, error) -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Failed to save auction result", error);
+                    }
+                });
     }
 
     @Override
     public CompletableFuture<List<org.djtmk.beeauction.data.AuctionHistoryEntry>> getAuctionHistory() {
-        return CompletableFuture.supplyAsync(() -> {
-            // FIXED: Process ResultSet inside try-with-resources to prevent resource leak
-            String sql = "SELECT * FROM auction_history ORDER BY timestamp DESC LIMIT 10";
-            List<org.djtmk.beeauction.data.AuctionHistoryEntry> entries = new ArrayList<>();
+        return queryHistory(HistoryQuery.firstPage(10)).handle((page, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to get auction history", error);
+                return List.of();
+            }
+            return page.entries();
+        });
+    }
 
-            try (Connection conn = getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql);
-                 ResultSet rs = stmt.executeQuery()) {
-
-                while (rs.next()) {
-                    org.djtmk.beeauction.data.AuctionHistoryEntry entry = new org.djtmk.beeauction.data.AuctionHistoryEntry(
-                            rs.getInt("id"),
-                            rs.getString("player_name"),
-                            UUID.fromString(rs.getString("player_uuid")),
-                            rs.getDouble("amount"),
-                            rs.getString("auction_type"),
-                            rs.getString("reward"),
-                            rs.getTimestamp("timestamp")
-                    );
-                    entries.add(entry);
-                }
+    @Override
+    public CompletableFuture<HistoryPage> queryHistory(HistoryQuery query) {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return HistoryQuerySql.execute(conn, query, uuidCodec, StorageType.MYSQL);
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to get auction history", e);
+                throw new CompletionException(e);
             }
-            return entries;
         });
     }
 
     @Override
     public CompletableFuture<Void> addPendingReward(UUID playerUuid, ItemStack item, String reason) {
-        return CompletableFuture.runAsync(() -> {
+        return executor.run(() -> {
             String sql = "INSERT INTO pending_rewards(player_uuid, item_data, reason) VALUES(?,?,?)";
             try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, playerUuid.toString());
-                pstmt.setString(2, ItemUtils.serializeItemToBase64(item));
+                uuidCodec.bind(pstmt, 1, playerUuid);
+                itemCodec.bind(pstmt, 2, item);
                 pstmt.setString(3, reason);
                 pstmt.executeUpdate();
-            } catch (SQLException | IllegalStateException e) {
+            } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Could not add pending reward to database", e);
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> writeBatch(List<AuctionResultRecord> results, List<PendingRewardRecord> rewards) {
+        return executor.run(() -> {
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    if (!results.isEmpty()) {
+                        String sql = "INSERT INTO auction_history(player_name, player_uuid, amount, auction_type, reward) VALUES(?,?,?,?,?)";
+                        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                             PreparedStatement statsStmt = conn.prepareStatement(PlayerStatsSql.upsert(StorageType.MYSQL))) {
+                            for (AuctionResultRecord result : results) {
+                                pstmt.setString(1, result.playerName());
+                                uuidCodec.bind(pstmt, 2, result.playerUuid());
+                                pstmt.setDouble(3, result.amount());
+                                pstmt.setString(4, result.auctionType());
+                                pstmt.setString(5, result.reward());
+                                pstmt.addBatch();
+
+                                uuidCodec.bind(statsStmt, 1, result.playerUuid());
+                                statsStmt.setString(2, result.playerName());
+                                statsStmt.setDouble(3, result.amount());
+                                statsStmt.setDouble(4, result.amount());
+                                statsStmt.addBatch();
+                            }
+                            pstmt.executeBatch();
+                            statsStmt.executeBatch();
+                        }
+                    }
+                    if (!rewards.isEmpty()) {
+                        String sql = "INSERT INTO pending_rewards(player_uuid, item_data, reason) VALUES(?,?,?)";
+                        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                            for (PendingRewardRecord reward : rewards) {
+                                uuidCodec.bind(pstmt, 1, reward.playerUuid());
+                                itemCodec.bind(pstmt, 2, reward.item());
+                                pstmt.setString(3, reward.reason());
+                                pstmt.addBatch();
+                            }
+                            pstmt.executeBatch();
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<ItemReencodeBatch> reencodeItems(long afterId, int limit) {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return new SchemaMigrator(plugin.getLogger(), StorageType.MYSQL).reencodeItems(conn, itemCodec, afterId, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
             }
         });
     }
 
     @Override
     public CompletableFuture<List<ItemStack>> getAndRemovePendingRewards(UUID playerUuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.supply(() -> {
             String selectSql = "SELECT id, item_data FROM pending_rewards WHERE player_uuid = ? FOR UPDATE";
             String deleteSql = "DELETE FROM pending_rewards WHERE id = ?";
             List<ItemStack> items = new ArrayList<>();
@@ -150,14 +237,14 @@ public class MySQLManager implements AsyncDatabaseManager {
                 conn.setAutoCommit(false);
 
                 try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                    selectStmt.setString(1, playerUuid.toString());
+                    uuidCodec.bind(selectStmt, 1, playerUuid);
                     ResultSet rs = selectStmt.executeQuery();
                     while (rs.next()) {
                         idsToRemove.add(rs.getInt("id"));
                         try {
-                            ItemStack item = ItemUtils.deserializeItemFromBase64(rs.getString("item_data"));
+                            ItemStack item = itemCodec.read(rs, "item_data");
                             items.add(item);
-                        } catch (IOException e) {
+                        } catch (IOException | RuntimeException e) {
                             plugin.getLogger().log(Level.WARNING, "Could not deserialize a pending item reward.", e);
                         }
                     }
@@ -197,10 +284,10 @@ public class MySQLManager implements AsyncDatabaseManager {
 
     @Override
     public CompletableFuture<Boolean> hasPendingRewards(UUID playerUuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.supply(() -> {
             String sql = "SELECT 1 FROM pending_rewards WHERE player_uuid = ? LIMIT 1";
             try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, playerUuid.toString());
+                uuidCodec.bind(pstmt, 1, playerUuid);
                 try (ResultSet rs = pstmt.executeQuery()) {
                     return rs.next();
                 }
@@ -211,21 +298,230 @@ public class MySQLManager implements AsyncDatabaseManager {
         });
     }
 
+    @Override
+    public CompletableFuture<Integer> loadPendingRewardOwners(Consumer<UUID> consumer) {
+        return executor.supply(() -> {
+            String sql = "SELECT DISTINCT player_uuid FROM pending_rewards";
+            int count = 0;
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Streams rows instead of buffering the whole result set in the driver.
+                pstmt.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(uuidCodec.read(rs, "player_uuid"));
+                        count++;
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+            return count;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> streamHistory(Consumer<AuctionHistoryEntry> consumer) {
+        return executor.supply(() -> {
+            long count = 0;
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(ExportSql.HISTORY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(ExportSql.readHistory(rs, uuidCodec, StorageType.MYSQL));
+                        count++;
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+            return count;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPendingRewardMeta(Consumer<PendingRewardMeta> consumer) {
+        return executor.supply(() -> {
+            long count = 0;
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(ExportSql.PENDING_REWARDS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(ExportSql.readPendingReward(rs, uuidCodec));
+                        count++;
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+            return count;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> purgeHistory(Timestamp cutoff, RetentionMode mode, int limit) {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return RetentionSql.purgeHistory(conn, StorageType.MYSQL, cutoff, mode, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> archivePendingRewards(Timestamp cutoff, int limit) {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return RetentionSql.archivePendingRewards(conn, StorageType.MYSQL, cutoff, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> compact(int pages) {
+        // OPTIMIZE TABLE rebuilds whole tables in one statement, so it only runs when asked for.
+        if (!plugin.getConfig().getBoolean("database.retention.mysql-optimize", false)) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return RetentionSql.compact(conn, StorageType.MYSQL, pages);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAuctionStates(List<AuctionStateRecord> states) {
+        return executor.run(() -> {
+            try (Connection conn = getConnection()) {
+                AuctionStateSql.save(conn, StorageType.MYSQL, itemCodec, states);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<AuctionStateRecord>> loadOpenAuctions() {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return AuctionStateSql.loadOpen(conn);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> getMaxAuctionId() {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return AuctionStateSql.maxId(conn);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> appendLedgerEntries(List<LedgerEntry> entries) {
+        return executor.run(() -> {
+            try (Connection conn = getConnection()) {
+                LedgerSql.append(conn, uuidCodec, entries);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<LedgerEntry>> queryLedger(LedgerQuery query) {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return LedgerSql.query(conn, uuidCodec, StorageType.MYSQL, query);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> getMaxLedgerSeq() {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                return LedgerSql.maxSeq(conn);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
     @Override
     public CompletableFuture<Integer> getAuctionsWonCount(UUID playerUuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT COUNT(*) as count FROM auction_history WHERE player_uuid = ?";
-            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, playerUuid.toString());
+        return getPlayerStats(playerUuid).thenApply(PlayerStats::wins);
+    }
+
+    @Override
+    public CompletableFuture<PlayerStats> getPlayerStats(UUID playerUuid) {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(PlayerStatsSql.SELECT)) {
+                uuidCodec.bind(pstmt, 1, playerUuid);
                 try (ResultSet rs = pstmt.executeQuery()) {
                     if (rs.next()) {
-                        return rs.getInt("count");
+                        return PlayerStatsSql.read(rs, uuidCodec, StorageType.MYSQL);
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to get player stats", e);
+            }
+            return PlayerStats.empty(playerUuid);
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerStats>> getTopPlayerStats(LeaderboardType type, int limit) {
+        return executor.supply(() -> {
+            List<PlayerStats> top = new ArrayList<>();
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(PlayerStatsSql.top(type))) {
+                pstmt.setInt(1, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        top.add(PlayerStatsSql.read(rs, uuidCodec, StorageType.MYSQL));
                     }
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to get auctions won count", e);
+                throw new CompletionException(e);
+            }
+            return top;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> rebuildPlayerStats() {
+        return executor.supply(() -> {
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(PlayerStatsSql.CLEAR);
+                    int rows = stmt.executeUpdate(PlayerStatsSql.REBUILD);
+                    conn.commit();
+                    return rows;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
             }
-            return 0;
         });
     }
 }
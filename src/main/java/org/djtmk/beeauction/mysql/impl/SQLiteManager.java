@@ -1,34 +1,55 @@
 package org.djtmk.beeauction.mysql.impl;
 
 import org.djtmk.beeauction.BeeAuction;
+import org.djtmk.beeauction.data.AuctionHistoryEntry;
+import org.djtmk.beeauction.data.AuctionResultRecord;
+import org.djtmk.beeauction.data.AuctionStateRecord;
+import org.djtmk.beeauction.data.HistoryPage;
+import org.djtmk.beeauction.data.HistoryQuery;
+import org.djtmk.beeauction.data.ItemReencodeBatch;
+import org.djtmk.beeauction.data.LeaderboardType;
+import org.djtmk.beeauction.data.LedgerEntry;
+import org.djtmk.beeauction.data.LedgerQuery;
+import org.djtmk.beeauction.data.PendingRewardMeta;
+import org.djtmk.beeauction.data.PendingRewardRecord;
+import org.djtmk.beeauction.data.PlayerStats;
+import org.djtmk.beeauction.data.RetentionMode;
 import org.djtmk.beeauction.data.SQLiteHandler;
 import org.djtmk.beeauction.mysql.AsyncDatabaseManager;
+import org.djtmk.beeauction.util.MonitoredExecutor;
 import org.bukkit.inventory.ItemStack;
 
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 public class SQLiteManager implements AsyncDatabaseManager {
 
     private final BeeAuction plugin;
     private final SQLiteHandler sqLiteHandler;
-    private final ExecutorService sqliteExecutor;
+    private final MonitoredExecutor sqliteExecutor;
+    // Reads run on their own thread against SQLiteHandler's read connection so they never
+    // wait behind queued writes.
+    private final MonitoredExecutor sqliteReadExecutor;
+    // Exports stream the whole table on their own connection; one at a time, off the read thread.
+    private final MonitoredExecutor sqliteExportExecutor;
 
     public SQLiteManager(BeeAuction plugin) {
         this.plugin = plugin;
         this.sqLiteHandler = new SQLiteHandler(plugin);
-        this.sqliteExecutor = Executors.newSingleThreadExecutor(r -> {
-            Thread thread = new Thread(r, "BeeAuction-SQLite");
-            thread.setDaemon(true);
-            return thread;
-        });
+        int queueCapacity = plugin.getConfig().getInt("database.executor.queue-capacity", 1000);
+        // Always one platform thread each, whatever threading.mode says: writes must stay ordered
+        // and each connection is used by one thread at a time.
+        this.sqliteExecutor = MonitoredExecutor.create("BeeAuction-SQLite", 1, queueCapacity, MonitoredExecutor.Mode.PLATFORM);
+        this.sqliteReadExecutor = MonitoredExecutor.create("BeeAuction-SQLite-Read", 1, queueCapacity, MonitoredExecutor.Mode.PLATFORM);
+        this.sqliteExportExecutor = MonitoredExecutor.create("BeeAuction-SQLite-Export", 1, 4, MonitoredExecutor.Mode.PLATFORM);
     }
 
     @Override
@@ -38,75 +59,285 @@ public class SQLiteManager implements AsyncDatabaseManager {
 
     @Override
     public void shutdown() {
-        sqliteExecutor.shutdown();
-        try {
-            if (!sqliteExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
-                plugin.getLogger().warning("SQLite executor did not terminate in time, forcing shutdown");
-                sqliteExecutor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            plugin.getLogger().log(Level.WARNING, "Interrupted while waiting for SQLite executor shutdown", e);
-            sqliteExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        sqliteExecutor.shutdownAndAwait(plugin.getLogger(), 10, TimeUnit.SECONDS);
+        sqliteReadExecutor.shutdownAndAwait(plugin.getLogger(), 10, TimeUnit.SECONDS);
+        sqliteExportExecutor.shutdownAndAwait(plugin.getLogger(), 10, TimeUnit.SECONDS);
         sqLiteHandler.shutdown();
     }
 
+    @Override
+    public List<MonitoredExecutor> getExecutors() {
+        return List.of(sqliteExecutor, sqliteReadExecutor, sqliteExportExecutor);
+    }
+
     @Override
     public CompletableFuture<Void> saveAuctionResult(String playerName, UUID playerUuid, double amount, String auctionType, String reward) {
-        return CompletableFuture.runAsync(() -> sqLiteHandler.saveAuctionResult(playerName, playerUuid, amount, auctionType, reward), sqliteExecutor);
+        return sqliteExecutor.run(() -> {
+            try {
+                sqLiteHandler.saveAuctionResult(playerName, playerUuid, amount, auctionType, reward);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to save auction result", e);
+                throw new CompletionException(e);
+            }
+        });
     }
 
     @Override
     public CompletableFuture<List<org.djtmk.beeauction.data.AuctionHistoryEntry>> getAuctionHistory() {
-        return CompletableFuture.supplyAsync(() -> {
+        return sqliteReadExecutor.supply(() -> {
             try {
                 return sqLiteHandler.getAuctionHistory();
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to get auction history", e);
                 return Collections.emptyList();
             }
-        }, sqliteExecutor);
+        });
     }
 
     @Override
     public CompletableFuture<Void> addPendingReward(UUID playerUuid, ItemStack item, String reason) {
-        return CompletableFuture.runAsync(() -> sqLiteHandler.addPendingReward(playerUuid, item, reason), sqliteExecutor);
+        return sqliteExecutor.run(() -> {
+            try {
+                sqLiteHandler.addPendingReward(playerUuid, item, reason);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not add pending reward to database", e);
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> writeBatch(List<AuctionResultRecord> results, List<PendingRewardRecord> rewards) {
+        return sqliteExecutor.run(() -> {
+            try {
+                sqLiteHandler.writeBatch(results, rewards);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<ItemReencodeBatch> reencodeItems(long afterId, int limit) {
+        return sqliteExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.reencodeItems(afterId, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
     }
 
     @Override
     public CompletableFuture<List<ItemStack>> getAndRemovePendingRewards(UUID playerUuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return sqliteExecutor.supply(() -> {
             try {
                 return sqLiteHandler.getAndRemovePendingRewards(playerUuid);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to get and remove pending rewards", e);
                 return Collections.emptyList();
             }
-        }, sqliteExecutor);
+        });
     }
 
     @Override
     public CompletableFuture<Boolean> hasPendingRewards(UUID playerUuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return sqliteReadExecutor.supply(() -> {
             try {
                 return sqLiteHandler.hasPendingRewards(playerUuid);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to check for pending rewards", e);
                 return false;
             }
-        }, sqliteExecutor);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> loadPendingRewardOwners(Consumer<UUID> consumer) {
+        return sqliteReadExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.loadPendingRewardOwners(consumer);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> streamHistory(Consumer<AuctionHistoryEntry> consumer) {
+        return sqliteExportExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.streamHistory(consumer);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPendingRewardMeta(Consumer<PendingRewardMeta> consumer) {
+        return sqliteExportExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.streamPendingRewardMeta(consumer);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> purgeHistory(Timestamp cutoff, RetentionMode mode, int limit) {
+        return sqliteExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.purgeHistory(cutoff, mode, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> archivePendingRewards(Timestamp cutoff, int limit) {
+        return sqliteExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.archivePendingRewards(cutoff, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> compact(int pages) {
+        return sqliteExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.compact(pages);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAuctionStates(List<AuctionStateRecord> states) {
+        return sqliteExecutor.run(() -> {
+            try {
+                sqLiteHandler.saveAuctionStates(states);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<AuctionStateRecord>> loadOpenAuctions() {
+        return sqliteReadExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.loadOpenAuctions();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> getMaxAuctionId() {
+        return sqliteReadExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.getMaxAuctionId();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> appendLedgerEntries(List<LedgerEntry> entries) {
+        return sqliteExecutor.run(() -> {
+            try {
+                sqLiteHandler.appendLedgerEntries(entries);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<LedgerEntry>> queryLedger(LedgerQuery query) {
+        return sqliteReadExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.queryLedger(query);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> getMaxLedgerSeq() {
+        return sqliteReadExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.getMaxLedgerSeq();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
     }
 
     @Override
     public CompletableFuture<Integer> getAuctionsWonCount(UUID playerUuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return sqliteReadExecutor.supply(() -> {
             try {
                 return sqLiteHandler.getAuctionsWonCount(playerUuid);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to get auctions won count", e);
                 return 0;
             }
-        }, sqliteExecutor);
+        });
+    }
+
+    @Override
+    public CompletableFuture<PlayerStats> getPlayerStats(UUID playerUuid) {
+        return sqliteReadExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.getPlayerStats(playerUuid);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to get player stats", e);
+                return PlayerStats.empty(playerUuid);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<HistoryPage> queryHistory(HistoryQuery query) {
+        return sqliteReadExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.queryHistory(query);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerStats>> getTopPlayerStats(LeaderboardType type, int limit) {
+        return sqliteReadExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.getTopPlayerStats(type, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> rebuildPlayerStats() {
+        return sqliteExecutor.supply(() -> {
+            try {
+                return sqLiteHandler.rebuildPlayerStats();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
     }
 }
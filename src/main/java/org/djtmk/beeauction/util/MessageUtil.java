@@ -1,6 +1,9 @@
 package org.djtmk.beeauction.util;
 
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.md_5.bungee.api.ChatColor;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.regex.Matcher;
@@ -8,6 +11,11 @@ import java.util.regex.Pattern;
 
 public class MessageUtil {
     private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
+            .character(LegacyComponentSerializer.SECTION_CHAR)
+            .hexColors()
+            .useUnusualXRepeatedCharacterHexFormat()
+            .build();
 
     public static String colorize(String message) {
         if (message == null) {
@@ -37,6 +45,28 @@ public class MessageUtil {
         player.sendMessage(colorize(message));
     }
 
+    public static void sendMessage(Player player, Component message) {
+        if (player == null || message == null) {
+            return;
+        }
+
+        player.sendMessage(message);
+    }
+
+    /**
+     * Sends one component to every online player and the console through the server audience.
+     */
+    public static void broadcast(Component message) {
+        Bukkit.getServer().sendMessage(message);
+    }
+
+    /**
+     * Converts already colorized text, including the §x hex form colorize produces.
+     */
+    public static Component toComponent(String colorized) {
+        return LEGACY.deserialize(colorized);
+    }
+
     public static String formatPrice(double price) {
         return String.format("%,.2f", price);
     }
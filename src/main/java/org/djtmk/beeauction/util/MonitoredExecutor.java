@@ -0,0 +1,171 @@
+package org.djtmk.beeauction.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded executor with named threads, used for blocking work such as JDBC, economy and HTTP
+ * calls so it never lands on the common ForkJoinPool. Tasks beyond the configured bound are
+ * rejected rather than piling up; rejections are counted and shown in /auction status.
+ *
+ * <p>In {@link Mode#PLATFORM} mode tasks run on a fixed pool of daemon threads behind a bounded
+ * queue. In {@link Mode#VIRTUAL} mode each task gets its own virtual thread, so tasks blocked on
+ * I/O park cheaply; the same threads + queue-capacity bound applies to tasks in flight.
+ */
+public class MonitoredExecutor implements Executor {
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL;
+
+        public static Mode parse(String value, Logger logger) {
+            try {
+                return Mode.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                logger.warning("Unknown threading.mode '" + value + "', using platform");
+                return PLATFORM;
+            }
+        }
+    }
+
+    private final String name;
+    private final Mode mode;
+    private final int threads;
+    private final int queueCapacity;
+    private final ExecutorService delegate;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private MonitoredExecutor(String name, int threads, int queueCapacity, Mode mode) {
+        this.name = name;
+        this.mode = mode;
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        if (mode == Mode.VIRTUAL) {
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+        } else {
+            this.delegate = new ThreadPoolExecutor(this.threads, this.threads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(this.queueCapacity), namedDaemonThreads(name));
+        }
+    }
+
+    public static MonitoredExecutor create(String name, int threads, int queueCapacity, Mode mode) {
+        return new MonitoredExecutor(name, threads, queueCapacity, mode);
+    }
+
+    private static ThreadFactory namedDaemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (inFlight.incrementAndGet() > threads + queueCapacity) {
+            reject();
+        }
+        try {
+            delegate.execute(() -> {
+                running.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    running.decrementAndGet();
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reject();
+        }
+    }
+
+    private void reject() {
+        inFlight.decrementAndGet();
+        rejected.increment();
+        throw new RejectedExecutionException(name + " is saturated or shut down (" + (threads + queueCapacity) + " tasks in flight)");
+    }
+
+    /**
+     * Like {@link CompletableFuture#supplyAsync}, but a rejection fails the returned future
+     * instead of throwing into the caller.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, this);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<Void> run(Runnable task) {
+        try {
+            return CompletableFuture.runAsync(task, this);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Stops accepting work and waits for queued tasks to finish, forcing a shutdown after the
+     * timeout.
+     */
+    public void shutdownAndAwait(Logger logger, long timeout, TimeUnit unit) {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(timeout, unit)) {
+                logger.warning(name + " did not terminate in time, forcing shutdown");
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            logger.log(Level.WARNING, "Interrupted while waiting for " + name + " shutdown", e);
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    public int getQueueDepth() {
+        return Math.max(0, inFlight.get() - running.get());
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public String describe() {
+        String limit = mode == Mode.VIRTUAL ? "virtual" : String.valueOf(threads);
+        return name + ": " + getRunningCount() + "/" + limit + " running, "
+                + getQueueDepth() + "/" + queueCapacity + " waiting, " + getRejectedCount() + " rejected";
+    }
+}
@@ -8,7 +8,6 @@ import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -22,14 +21,16 @@ public class UpdateChecker {
     private final String modrinthProjectId;
     private String latestVersion;
     private String downloadUrl;
+    private final MonitoredExecutor executor;
 
-    public UpdateChecker(JavaPlugin plugin, String modrinthProjectId) {
+    public UpdateChecker(JavaPlugin plugin, String modrinthProjectId, MonitoredExecutor executor) {
         this.plugin = plugin;
         this.modrinthProjectId = modrinthProjectId;
+        this.executor = executor;
     }
 
     public void check() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        executor.run(() -> {
             try {
                 URL url = new URL("https://api.modrinth.com/v2/project/" + modrinthProjectId + "/version");
 
@@ -0,0 +1,45 @@
+package org.djtmk.beeauction.auctions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BidSequencerTest {
+
+    @Test
+    void publishesInOrderImmediately() {
+        BidSequencer sequencer = new BidSequencer();
+        List<Long> published = new ArrayList<>();
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            long s = sequence;
+            sequencer.publish(s, () -> published.add(s));
+        }
+        assertEquals(List.of(1L, 2L, 3L), published);
+    }
+
+    @Test
+    void holdsBackEffectsUntilEarlierSequencesArrive() {
+        BidSequencer sequencer = new BidSequencer();
+        List<Long> published = new ArrayList<>();
+        sequencer.publish(3, () -> published.add(3L));
+        sequencer.publish(2, () -> published.add(2L));
+        assertTrue(published.isEmpty());
+
+        sequencer.publish(1, () -> published.add(1L));
+        assertEquals(List.of(1L, 2L, 3L), published);
+    }
+
+    @Test
+    void restoredAuctionContinuesAfterItsLastBid() {
+        // A restored auction with five committed bids numbers its next bid 6.
+        BidSequencer sequencer = new BidSequencer(6);
+        List<Long> published = new ArrayList<>();
+        sequencer.publish(6, () -> published.add(6L));
+        sequencer.publish(7, () -> published.add(7L));
+        assertEquals(List.of(6L, 7L), published);
+    }
+}
@@ -0,0 +1,30 @@
+package org.djtmk.beeauction.auctions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BidStateTest {
+
+    @Test
+    void acceptsBidsOnlyBeforeTheEndTime() {
+        BidState open = BidState.initial(100).opened(10_000L);
+        assertTrue(open.acceptsBidsAt(9_999L));
+        assertFalse(open.acceptsBidsAt(10_000L));
+        assertFalse(open.acceptsBidsAt(12_000L));
+        assertFalse(open.closed().acceptsBidsAt(0L));
+    }
+
+    @Test
+    void requiredBidAddsTheIncrementOnceThereIsABidder() {
+        BidState open = BidState.initial(100).opened(10_000L);
+        assertEquals(100, open.requiredBid(5));
+        BidState bid = open.withBid(120, UUID.randomUUID(), "Steve", 10_000L);
+        assertEquals(125, bid.requiredBid(5));
+        assertEquals(1, bid.sequence());
+    }
+}
@@ -0,0 +1,140 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuctionStateSqlTest {
+
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BIDDER = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        new SchemaMigrator(Logger.getLogger("BeeAuctionTest"), StorageType.SQLITE).migrate(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void openAuctionIsRestoredWithItsBidState() throws SQLException {
+        save(state(1, AuctionStatus.OPEN, 4));
+
+        List<AuctionStateRecord> open = AuctionStateSql.loadOpen(conn);
+        assertEquals(1, open.size());
+        AuctionStateRecord restored = open.get(0);
+        assertEquals(AuctionStatus.OPEN, restored.status());
+        assertNull(restored.item());
+        assertEquals("give %player% diamond 1", restored.command());
+        assertEquals(OWNER, restored.ownerUuid());
+        assertEquals(BIDDER, restored.bidderUuid());
+        assertEquals(250.0, restored.currentBid());
+        assertEquals(4, restored.bidSequence());
+    }
+
+    @Test
+    void endingAuctionIsRestoredUntilItIsSettled() throws SQLException {
+        save(state(1, AuctionStatus.ENDING, 4));
+        assertEquals(AuctionStatus.ENDING, AuctionStateSql.loadOpen(conn).get(0).status());
+
+        save(state(1, AuctionStatus.ENDED, 4));
+        assertTrue(AuctionStateSql.loadOpen(conn).isEmpty());
+    }
+
+    @Test
+    void cancelledAuctionIsNotRestored() throws SQLException {
+        save(state(1, AuctionStatus.OPEN, 0));
+        save(state(1, AuctionStatus.CANCELLED, 0));
+        assertTrue(AuctionStateSql.loadOpen(conn).isEmpty());
+    }
+
+    @Test
+    void finishedAuctionsAreDeletedExceptTheNewest() throws SQLException {
+        save(state(1, AuctionStatus.ENDED, 1));
+        save(state(2, AuctionStatus.OPEN, 0));
+        assertEquals(List.of(1, 2), storedIds());
+
+        save(state(3, AuctionStatus.CANCELLED, 0));
+        assertEquals(List.of(2, 3), storedIds());
+        assertEquals(3, AuctionStateSql.maxId(conn));
+    }
+
+    @Test
+    void maxIdCountsLedgerOnlyAuctions() throws SQLException {
+        assertEquals(0, AuctionStateSql.maxId(conn));
+        save(state(3, AuctionStatus.ENDED, 1));
+        assertEquals(3, AuctionStateSql.maxId(conn));
+
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO bid_ledger " +
+                "(seq, auction_id, entry_type, player_uuid, amount) VALUES (1, 7, 'BID', ?, 10)")) {
+            pstmt.setString(1, BIDDER.toString());
+            pstmt.executeUpdate();
+        }
+        assertEquals(7, AuctionStateSql.maxId(conn));
+    }
+
+    @Test
+    void newerOpenStateSupersedesOlderOne() {
+        assertTrue(state(1, AuctionStatus.OPEN, 5).supersedes(state(1, AuctionStatus.OPEN, 4)));
+        assertFalse(state(1, AuctionStatus.OPEN, 3).supersedes(state(1, AuctionStatus.OPEN, 4)));
+        assertTrue(state(1, AuctionStatus.ENDING, 4).supersedes(state(1, AuctionStatus.OPEN, 4)));
+    }
+
+    @Test
+    void endingStateOnlyMovesToAFinalStatus() {
+        AuctionStateRecord ending = state(1, AuctionStatus.ENDING, 4);
+        assertTrue(state(1, AuctionStatus.ENDED, 4).supersedes(ending));
+        assertTrue(state(1, AuctionStatus.CANCELLED, 4).supersedes(ending));
+        assertFalse(state(1, AuctionStatus.OPEN, 9).supersedes(ending));
+        assertFalse(state(1, AuctionStatus.ENDING, 9).supersedes(ending));
+    }
+
+    @Test
+    void finalStateIsNeverReplaced() {
+        AuctionStateRecord ended = state(1, AuctionStatus.ENDED, 4);
+        assertFalse(state(1, AuctionStatus.OPEN, 9).supersedes(ended));
+        assertFalse(state(1, AuctionStatus.ENDING, 9).supersedes(ended));
+    }
+
+    private void save(AuctionStateRecord state) throws SQLException {
+        AuctionStateSql.save(conn, StorageType.SQLITE, ItemCodec.LEGACY, List.of(state));
+    }
+
+    private List<Integer> storedIds() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT id FROM auctions ORDER BY id")) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private static AuctionStateRecord state(int id, AuctionStatus status, long bidSequence) {
+        return new AuctionStateRecord(id, "COMMAND", status, null, "give %player% diamond 1", "Diamond",
+                null, 100.0, 300, "Alex", OWNER, 250.0, BIDDER, "Steve", 1_760_000_000_000L, bidSequence);
+    }
+}
@@ -0,0 +1,26 @@
+package org.djtmk.beeauction.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HistoryCursorTest {
+
+    @Test
+    void encodeRoundTrips() {
+        HistoryCursor cursor = new HistoryCursor(new Timestamp(1_760_000_000_123L), 4242);
+        assertEquals(cursor, HistoryCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void malformedTokensDecodeToNull() {
+        assertNull(HistoryCursor.decode(""));
+        assertNull(HistoryCursor.decode("abc"));
+        assertNull(HistoryCursor.decode(".1z4"));
+        assertNull(HistoryCursor.decode("lq3k9x2o."));
+        assertNull(HistoryCursor.decode("lq3k9x2o.!!"));
+    }
+}
@@ -0,0 +1,95 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HistoryQuerySqlTest {
+
+    private TimeZone defaultZone;
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // The bug this covers only shows up on servers that are not running in UTC.
+        defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        new SchemaMigrator(Logger.getLogger("BeeAuctionTest"), StorageType.SQLITE).migrate(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    void readsStoredTextAsUtc() throws SQLException {
+        insert("2026-03-01 12:00:00");
+        HistoryPage page = HistoryQuerySql.execute(conn, HistoryQuery.firstPage(10), UuidCodec.TEXT, StorageType.SQLITE);
+        assertEquals(Instant.parse("2026-03-01T12:00:00Z"), page.entries().get(0).getTimestamp().toInstant());
+    }
+
+    @Test
+    void pagesVisitEveryRowOnceInOrder() throws SQLException {
+        insert("2026-03-01 10:00:00");
+        insert("2026-03-01 11:00:00");
+        insert("2026-03-01 11:00:00");
+        insert("2026-03-01 12:00:00");
+        insert("2026-03-01 09:00:00");
+
+        List<Integer> ids = new ArrayList<>();
+        HistoryQuery query = HistoryQuery.firstPage(2);
+        int pages = 0;
+        // Bounded, so a cursor that never moves past its row fails instead of looping.
+        while (query != null && pages < 10) {
+            HistoryPage page = HistoryQuerySql.execute(conn, query, UuidCodec.TEXT, StorageType.SQLITE);
+            page.entries().forEach(entry -> ids.add(entry.getId()));
+            query = query.next(page);
+            pages++;
+        }
+        assertEquals(List.of(4, 3, 2, 1, 5), ids);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void decodedCursorResumesAfterItsRow() throws SQLException {
+        insert("2026-03-01 10:00:00");
+        insert("2026-03-01 11:00:00");
+        HistoryPage first = HistoryQuerySql.execute(conn, HistoryQuery.firstPage(1), UuidCodec.TEXT, StorageType.SQLITE);
+        HistoryCursor cursor = HistoryCursor.decode(first.next().encode());
+
+        HistoryPage second = HistoryQuerySql.execute(conn, HistoryQuery.firstPage(1).after(cursor), UuidCodec.TEXT, StorageType.SQLITE);
+        assertEquals(1, second.entries().get(0).getId());
+        assertNull(second.next());
+    }
+
+    private void insert(String timestamp) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO auction_history " +
+                "(player_name, player_uuid, amount, auction_type, reward, timestamp) VALUES (?, ?, ?, ?, ?, ?)")) {
+            pstmt.setString(1, "Steve");
+            pstmt.setString(2, UUID.randomUUID().toString());
+            pstmt.setDouble(3, 100.0);
+            pstmt.setString(4, "ITEM");
+            pstmt.setString(5, "Diamond");
+            pstmt.setString(6, timestamp);
+            pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerSqlTest {
+
+    private static final UUID BIDDER = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private TimeZone defaultZone;
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        new SchemaMigrator(Logger.getLogger("BeeAuctionTest"), StorageType.SQLITE).migrate(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    void queriesReturnNewestFirstWithUtcTimestamps() throws SQLException {
+        Instant before = Instant.now().minusSeconds(2);
+        LedgerSql.append(conn, UuidCodec.TEXT, List.of(
+                entry(1, 7, LedgerEntryType.BID, 100),
+                entry(2, 8, LedgerEntryType.BID, 50),
+                entry(3, 7, LedgerEntryType.BID, 120)));
+
+        List<LedgerEntry> entries = LedgerSql.query(conn, UuidCodec.TEXT, StorageType.SQLITE, LedgerQuery.forAuction(7, 10));
+        assertEquals(List.of(3L, 1L), entries.stream().map(LedgerEntry::seq).toList());
+        Instant written = entries.get(0).timestamp().toInstant();
+        assertTrue(!written.isBefore(before) && !written.isAfter(Instant.now().plusSeconds(2)), "written at " + written);
+
+        List<LedgerEntry> older = LedgerSql.query(conn, UuidCodec.TEXT, StorageType.SQLITE, LedgerQuery.forPlayer(BIDDER, 10).before(3));
+        assertEquals(List.of(2L, 1L), older.stream().map(LedgerEntry::seq).toList());
+    }
+
+    private static LedgerEntry entry(long seq, int auctionId, LedgerEntryType type, double amount) {
+        return new LedgerEntry(seq, auctionId, type, BIDDER, "Steve", amount, null, null);
+    }
+}
@@ -0,0 +1,92 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerStatsSqlTest {
+
+    private static final UUID PLAYER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private TimeZone defaultZone;
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        new SchemaMigrator(Logger.getLogger("BeeAuctionTest"), StorageType.SQLITE).migrate(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    void rebuiltStatsKeepTheLastWinInUtc() throws SQLException {
+        insertHistory(100, "2026-03-01 10:00:00");
+        insertHistory(250, "2026-03-01 12:00:00");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(PlayerStatsSql.REBUILD);
+        }
+
+        PlayerStats stats = select();
+        assertEquals(2, stats.wins());
+        assertEquals(350, stats.totalSpent());
+        assertEquals(250, stats.highestBid());
+        assertEquals(Instant.parse("2026-03-01T12:00:00Z"), stats.lastWin().toInstant());
+    }
+
+    @Test
+    void upsertStampsTheLastWinWithTheCurrentTime() throws SQLException {
+        Instant before = Instant.now().minusSeconds(2);
+        try (PreparedStatement pstmt = conn.prepareStatement(PlayerStatsSql.upsert(StorageType.SQLITE))) {
+            pstmt.setString(1, PLAYER.toString());
+            pstmt.setString(2, "Steve");
+            pstmt.setDouble(3, 100);
+            pstmt.setDouble(4, 100);
+            pstmt.executeUpdate();
+        }
+
+        Instant lastWin = select().lastWin().toInstant();
+        assertTrue(!lastWin.isBefore(before) && !lastWin.isAfter(Instant.now().plusSeconds(2)), "last win was " + lastWin);
+    }
+
+    private PlayerStats select() throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(PlayerStatsSql.SELECT)) {
+            pstmt.setString(1, PLAYER.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                assertTrue(rs.next());
+                return PlayerStatsSql.read(rs, UuidCodec.TEXT, StorageType.SQLITE);
+            }
+        }
+    }
+
+    private void insertHistory(double amount, String timestamp) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO auction_history " +
+                "(player_name, player_uuid, amount, auction_type, reward, timestamp) VALUES ('Steve', ?, ?, 'ITEM', 'Dirt', ?)")) {
+            pstmt.setString(1, PLAYER.toString());
+            pstmt.setDouble(2, amount);
+            pstmt.setString(3, timestamp);
+            pstmt.executeUpdate();
+        }
+    }
+}
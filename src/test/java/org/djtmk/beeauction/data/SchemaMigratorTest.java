@@ -0,0 +1,85 @@
+package org.djtmk.beeauction.data;
+
+import org.djtmk.beeauction.config.AuctionEnum.StorageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SchemaMigratorTest {
+
+    private final SchemaMigrator migrator = new SchemaMigrator(Logger.getLogger("BeeAuctionTest"), StorageType.SQLITE);
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        migrator.migrate(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void migrateIsIdempotent() throws SQLException {
+        int version = migrator.getCurrentVersion(conn);
+        migrator.migrate(conn);
+        assertEquals(version, migrator.getCurrentVersion(conn));
+    }
+
+    @Test
+    void convertsUuidsAcrossSeveralBatchesAndBack() throws SQLException {
+        // More rows than one conversion batch, so the batch loop has to continue.
+        List<UUID> uuids = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO auction_history " +
+                "(player_name, player_uuid, amount, auction_type, reward) VALUES ('Steve', ?, 1, 'ITEM', 'Dirt')")) {
+            for (int i = 0; i < 2_500; i++) {
+                UUID uuid = UUID.randomUUID();
+                uuids.add(uuid);
+                pstmt.setString(1, uuid.toString());
+                pstmt.executeUpdate();
+            }
+        }
+
+        assertSame(UuidCodec.BINARY, migrator.migrateUuidLayout(conn, true));
+        assertEquals(2_500, count("blob"));
+        assertEquals(uuids, readUuids());
+
+        assertSame(UuidCodec.TEXT, migrator.migrateUuidLayout(conn, false));
+        assertEquals(2_500, count("text"));
+        assertEquals(uuids, readUuids());
+    }
+
+    private int count(String storageClass) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM auction_history WHERE typeof(player_uuid) = '" + storageClass + "'")) {
+            return rs.getInt(1);
+        }
+    }
+
+    private List<UUID> readUuids() throws SQLException {
+        List<UUID> uuids = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT player_uuid FROM auction_history ORDER BY id")) {
+            while (rs.next()) {
+                uuids.add(UuidCodec.TEXT.read(rs, "player_uuid"));
+            }
+        }
+        return uuids;
+    }
+}